@@ -0,0 +1,74 @@
+package api.longpoll.bots.benchmarks;
+
+import api.longpoll.bots.adapters.deserializers.UpdateDeserializer;
+import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.model.events.Update;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import okhttp3.MediaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures decoding of Long Poll responses.
+ */
+@State(Scope.Benchmark)
+public class GetUpdatesBenchmark {
+    /**
+     * Number of updates in response.
+     */
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    /**
+     * Long Poll response.
+     */
+    private byte[] response;
+
+    /**
+     * Exposes streaming decoding of {@link GetUpdates}.
+     */
+    private DecodingGetUpdates getUpdates;
+
+    /**
+     * {@link Gson} decoding updates by {@link UpdateDeserializer} through JSON tree.
+     */
+    private Gson treeGson;
+
+    @Setup
+    public void setUp() {
+        response = new UpdateCorpus().response(batchSize).getBytes(StandardCharsets.UTF_8);
+        getUpdates = new DecodingGetUpdates();
+        treeGson = new GsonBuilder().registerTypeAdapter(Update.class, new UpdateDeserializer()).create();
+    }
+
+    @Benchmark
+    public GetUpdates.ResponseBody streaming() throws VkApiException, IOException {
+        return getUpdates.decode(okhttp3.ResponseBody.create(response, MediaType.get("application/json")));
+    }
+
+    @Benchmark
+    public GetUpdates.ResponseBody tree() {
+        return treeGson.fromJson(new String(response, StandardCharsets.UTF_8), GetUpdates.ResponseBody.class);
+    }
+
+    /**
+     * Gives access to {@link GetUpdates#readResponse(okhttp3.ResponseBody)}.
+     */
+    private static class DecodingGetUpdates extends GetUpdates {
+        DecodingGetUpdates() {
+            super("https://lp.vk.com/wh0");
+        }
+
+        GetUpdates.ResponseBody decode(okhttp3.ResponseBody responseBody) throws VkApiException, IOException {
+            return readResponse(responseBody);
+        }
+    }
+}
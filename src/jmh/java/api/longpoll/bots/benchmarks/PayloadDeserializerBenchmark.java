@@ -0,0 +1,55 @@
+package api.longpoll.bots.benchmarks;
+
+import api.longpoll.bots.adapters.deserializers.PayloadDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures decoding of message payloads.
+ */
+@State(Scope.Benchmark)
+public class PayloadDeserializerBenchmark {
+    /**
+     * Payload kind: JSON object, JSON object encoded as string, or plain string.
+     */
+    @Param({"object", "string", "plain"})
+    public String kind;
+
+    /**
+     * Payload as received from VK.
+     */
+    private JsonElement payload;
+
+    /**
+     * Benchmarked deserializer.
+     */
+    private final PayloadDeserializer payloadDeserializer = new PayloadDeserializer();
+
+    @Setup
+    public void setUp() {
+        String json = "{\"command\":\"start\",\"button\":\"1\"}";
+        switch (kind) {
+            case "object":
+                payload = JsonParser.parseString(json);
+                break;
+
+            case "string":
+                payload = new JsonPrimitive(json);
+                break;
+
+            default:
+                payload = new JsonPrimitive("start");
+        }
+    }
+
+    @Benchmark
+    public JsonElement deserialize() {
+        return payloadDeserializer.deserialize(payload, JsonElement.class, null);
+    }
+}
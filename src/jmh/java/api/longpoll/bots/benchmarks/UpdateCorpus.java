@@ -0,0 +1,100 @@
+package api.longpoll.bots.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sample updates of {@code src/test/resource/json/response} used as benchmark input.
+ */
+class UpdateCorpus {
+    /**
+     * Directory of sample responses. Benchmarks are expected to be run from project root.
+     */
+    private static final Path SAMPLES = Paths.get(System.getProperty("vk.samples", "src/test/resource/json/response"));
+
+    /**
+     * Sample updates by update type name, in file name order.
+     */
+    private final Map<String, List<JsonObject>> updates = new TreeMap<>();
+
+    UpdateCorpus() {
+        try (Stream<Path> files = Files.walk(SAMPLES)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".json")).sorted().collect(Collectors.toList())) {
+                readUpdates(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (updates.isEmpty()) {
+            throw new IllegalStateException("No sample updates found in " + SAMPLES.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Reads updates of Long Poll sample response.
+     *
+     * @param file sample response.
+     * @throws IOException if errors occur.
+     */
+    private void readUpdates(Path file) throws IOException {
+        JsonElement response;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            response = JsonParser.parseReader(reader);
+        }
+        if (!response.isJsonObject() || !response.getAsJsonObject().has("updates")) {
+            return;
+        }
+        for (JsonElement update : response.getAsJsonObject().getAsJsonArray("updates")) {
+            JsonObject jsonObject = update.getAsJsonObject();
+            updates.computeIfAbsent(jsonObject.get("type").getAsString(), type -> new ArrayList<>()).add(jsonObject);
+        }
+    }
+
+    /**
+     * Gets first sample update of provided type.
+     *
+     * @param type update type name, e.g. {@code message_new}.
+     * @return sample update JSON.
+     */
+    String update(String type) {
+        List<JsonObject> samples = updates.get(type);
+        if (samples == null) {
+            throw new IllegalArgumentException("No sample of update type '" + type + "'.");
+        }
+        return samples.get(0).toString();
+    }
+
+    /**
+     * Builds Long Poll response of provided number of updates, cycling through samples of all update types.
+     *
+     * @param size number of updates.
+     * @return Long Poll response JSON.
+     */
+    String response(int size) {
+        List<JsonObject> all = updates.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        JsonArray batch = new JsonArray(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(all.get(i % all.size()));
+        }
+        JsonObject response = new JsonObject();
+        response.addProperty("ts", "1000");
+        response.add("updates", batch);
+        return response.toString();
+    }
+}
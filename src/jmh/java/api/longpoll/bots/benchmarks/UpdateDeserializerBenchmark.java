@@ -0,0 +1,69 @@
+package api.longpoll.bots.benchmarks;
+
+import api.longpoll.bots.adapters.VkGson;
+import api.longpoll.bots.adapters.deserializers.UpdateDeserializer;
+import api.longpoll.bots.model.events.Update;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Measures decoding of a single update per update type.
+ */
+@State(Scope.Benchmark)
+public class UpdateDeserializerBenchmark {
+    /**
+     * Update type name.
+     */
+    @Param({
+            "message_new",
+            "message_event",
+            "message_typing_state",
+            "wall_post_new",
+            "wall_reply_new",
+            "photo_new",
+            "board_post_new",
+            "like_add",
+            "group_change_settings"
+    })
+    public String type;
+
+    /**
+     * Sample update JSON.
+     */
+    private String update;
+
+    /**
+     * {@link Gson} decoding updates by {@link UpdateDeserializer}.
+     */
+    private Gson treeGson;
+
+    /**
+     * Streaming adapter of shared {@link Gson}.
+     */
+    private TypeAdapter<Update> streamingAdapter;
+
+    @Setup
+    public void setUp() {
+        update = new UpdateCorpus().update(type);
+        treeGson = new GsonBuilder().registerTypeAdapter(Update.class, new UpdateDeserializer()).create();
+        streamingAdapter = VkGson.get().getAdapter(Update.class);
+    }
+
+    @Benchmark
+    public Update updateDeserializer() {
+        return treeGson.fromJson(update, Update.class);
+    }
+
+    @Benchmark
+    public Update updateTypeAdapter() throws IOException {
+        return streamingAdapter.fromJson(update);
+    }
+}
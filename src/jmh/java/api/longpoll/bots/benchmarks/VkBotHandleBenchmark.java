@@ -0,0 +1,69 @@
+package api.longpoll.bots.benchmarks;
+
+import api.longpoll.bots.VkBot;
+import api.longpoll.bots.adapters.VkGson;
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.likes.Like;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import api.longpoll.bots.model.objects.basic.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Measures dispatching of decoded updates to handler methods.
+ */
+@State(Scope.Benchmark)
+public class VkBotHandleBenchmark {
+    /**
+     * Decoded updates of all sample types.
+     */
+    private List<Update> updates;
+
+    /**
+     * Bot handling some of update types.
+     */
+    private VkBot bot;
+
+    /**
+     * Consumes handled objects.
+     */
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        updates = VkGson.get().fromJson(new UpdateCorpus().response(100), GetUpdates.ResponseBody.class).getEvents();
+        bot = new VkBot() {
+            @Override
+            public String getAccessToken() {
+                return "token";
+            }
+
+            @Override
+            public void onMessageNew(MessageNew messageNew) {
+                VkBotHandleBenchmark.this.blackhole.consume(messageNew);
+            }
+
+            @Override
+            public void onMessageReply(Message message) {
+                VkBotHandleBenchmark.this.blackhole.consume(message);
+            }
+
+            @Override
+            public void onLikeAdd(Like like) {
+                VkBotHandleBenchmark.this.blackhole.consume(like);
+            }
+        };
+    }
+
+    @Benchmark
+    public void handle() {
+        bot.handle(updates);
+    }
+}
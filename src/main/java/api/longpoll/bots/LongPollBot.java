@@ -1,17 +1,39 @@
 package api.longpoll.bots;
 
+import api.longpoll.bots.checkpoint.InMemoryTsStore;
+import api.longpoll.bots.checkpoint.TsStore;
+import api.longpoll.bots.dispatch.EventDeduplicator;
+import api.longpoll.bots.dispatch.UpdateDispatcher;
 import api.longpoll.bots.exceptions.VkApiException;
-import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.exceptions.VkLongPollFailedException;
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.utils.VirtualThreads;
 import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Abstract bot to handle VK events.
  */
 public abstract class LongPollBot extends VkBot {
+    /**
+     * {@link Logger} instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LongPollBot.class);
+
     /**
      * Default session time.
      *
@@ -19,75 +41,412 @@ public abstract class LongPollBot extends VkBot {
      */
     private static final long DEFAULT_SESSION_DURATION = 9;
 
+    /**
+     * Default time to wait for updates on Long Poll server (in seconds).
+     */
+    private static final int DEFAULT_WAIT = 25;
+
     /**
      * Gets VK updates.
      */
     private GetUpdates getUpdates;
 
+    /**
+     * {@code ts} of the next request to Long Poll server.
+     */
+    private int ts;
+
     /**
      * Whether infinite loop should be continued.
      */
-    private boolean polling = true;
+    private volatile boolean polling = true;
 
     /**
-     * Last time when {@link LongPollBot#initialize()} was called.
+     * Last time when Long Poll server was requested.
      */
     private LocalDateTime initializedAt;
 
     /**
      * Long Poll session duration (in hours).
-     * When time is expired, {@link LongPollBot#initialize()} method is called.
+     * When time is expired, Long Poll server is requested again and polling continues from the current {@code ts}.
      */
     private long sessionDuration = DEFAULT_SESSION_DURATION;
 
+    /**
+     * Time to wait for updates on Long Poll server (in seconds).
+     */
+    private int wait = DEFAULT_WAIT;
+
+    /**
+     * Whether the next batch is requested before the current batch is handled.
+     */
+    private boolean prefetch;
+
+    /**
+     * Store of {@code ts} checkpoints.
+     */
+    private TsStore tsStore = new InMemoryTsStore();
+
+    /**
+     * Completed when {@code ts} of the last dispatched batch is saved.
+     */
+    private volatile CompletableFuture<Void> checkpoint = CompletableFuture.completedFuture(null);
+
+    /**
+     * The latest request to Long Poll server.
+     */
+    private volatile CompletableFuture<GetUpdates.ResponseBody> inFlight;
+
+    /**
+     * Completed when polling loop exits.
+     */
+    private volatile CompletableFuture<Void> terminated = CompletableFuture.completedFuture(null);
+
+    /**
+     * Drops recently seen updates before dispatch. Disabled by default.
+     */
+    private EventDeduplicator eventDeduplicator;
+
+    /**
+     * Hands received updates over to handlers.
+     * By default, updates are handled on polling thread before the next batch is requested.
+     */
+    private UpdateDispatcher updateDispatcher = new UpdateDispatcher() {
+        @Override
+        public CompletableFuture<Void> dispatch(List<Update> updates) {
+            handle(updates);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean accepts(Update.Type type) {
+            return LongPollBot.this.accepts(type);
+        }
+    };
+
+    public LongPollBot() {
+    }
+
+    public LongPollBot(VkHttpClient httpClient) {
+        super(httpClient);
+    }
+
     /**
      * Begins listening to VK updates.
      *
      * @throws VkApiException if errors occur.
      */
     public void startPolling() throws VkApiException {
-        initialize();
+        CompletableFuture<Void> terminated = new CompletableFuture<>();
+        this.terminated = terminated;
+        try {
+            poll();
+        } finally {
+            terminated.complete(null);
+        }
+    }
+
+    /**
+     * Runs polling loop.
+     *
+     * @throws VkApiException if errors occur.
+     */
+    private void poll() throws VkApiException {
+        resume();
+        CompletableFuture<GetUpdates.ResponseBody> prefetched = null;
         while (polling) {
             try {
-                if (isSessionExpired()) {
-                    initialize();
+                if (prefetched == null && isSessionExpired()) {
+                    connect(getLongPollServer(), ts);
                 }
-                GetUpdates.ResponseBody updates = getUpdates.execute();
-                getUpdates.setTs(updates.getTs());
-                handle(updates.getEvents());
-            } catch (VkResponseException e) {
-                if (!e.getMessage().contains("failed")) {
-                    throw e;
+                GetUpdates.ResponseBody updates = await(prefetched != null ? prefetched : request());
+                prefetched = null;
+                setTs(updates.getTs());
+                if (prefetch && polling && !isSessionExpired()) {
+                    prefetched = request();
                 }
-                initialize();
+                List<Update> events = eventDeduplicator != null
+                        ? eventDeduplicator.filter(updates.getEvents())
+                        : updates.getEvents();
+                checkpoint(updateDispatcher.dispatch(events), updates.getTs());
+            } catch (VkLongPollFailedException e) {
+                prefetched = null;
+                recover(e);
+            } catch (CancellationException e) {
+                prefetched = null;
+            }
+        }
+        flushTs();
+    }
+
+    /**
+     * Sends request to Long Poll server. The request is cancelled if polling is stopped meanwhile.
+     *
+     * @return response of Long Poll server.
+     */
+    private CompletableFuture<GetUpdates.ResponseBody> request() {
+        CompletableFuture<GetUpdates.ResponseBody> request = getUpdates.executeAsync();
+        inFlight = request;
+        if (!polling) {
+            request.cancel(false);
+        }
+        return request;
+    }
+
+    /**
+     * Begins listening to VK updates on a new thread: virtual on JDK 21+, daemon platform thread otherwise. Virtual
+     * threads are daemon, so the caller should wait for the returned future to keep the JVM running.
+     *
+     * @return future which is completed when polling stops.
+     */
+    public CompletableFuture<Void> startPollingAsync() {
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        VirtualThreads.newThread("LongPollBot", () -> {
+            try {
+                startPolling();
+                stopped.complete(null);
+            } catch (VkApiException | RuntimeException e) {
+                stopped.completeExceptionally(e);
             }
+        }).start();
+        return stopped;
+    }
+
+    /**
+     * Initializes {@link LongPollBot} by {@link LongPollBot#initialize()}, then continues polling from saved
+     * {@code ts}, if VK still keeps updates after it.
+     *
+     * @throws VkApiException if errors occur.
+     */
+    private void resume() throws VkApiException {
+        initialize();
+        Integer savedTs;
+        try {
+            savedTs = tsStore.load();
+        } catch (IOException e) {
+            throw new VkApiException(e);
+        }
+        if (savedTs != null && savedTs <= ts) {
+            setTs(savedTs);
         }
     }
 
     /**
-     * Stops listening to VK updates.
+     * Saves {@code ts} once the batch and all the previous batches are handled. If the batch fails, its {@code ts} is
+     * not saved, while {@code ts} of the next batches still is.
+     *
+     * @param handled future which is completed when the batch is handled.
+     * @param ts      {@code ts} to continue polling with after the batch.
+     */
+    private void checkpoint(CompletableFuture<Void> handled, int ts) {
+        CompletableFuture<Boolean> succeeded = handled.handle((result, e) -> {
+            if (e != null) {
+                LOGGER.error("Failed to handle updates, ts checkpoint is skipped.", e);
+            }
+            return e == null;
+        });
+        checkpoint = checkpoint.thenCombine(succeeded, (previous, batchSucceeded) -> batchSucceeded).thenAccept(batchSucceeded -> {
+            if (!batchSucceeded) {
+                return;
+            }
+            try {
+                tsStore.save(ts);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to save ts checkpoint.", e);
+            }
+        });
+    }
+
+    /**
+     * Writes pending {@code ts} checkpoint.
+     *
+     * @throws VkApiException if errors occur.
+     */
+    private void flushTs() throws VkApiException {
+        try {
+            tsStore.flush();
+        } catch (IOException e) {
+            throw new VkApiException(e);
+        }
+    }
+
+    /**
+     * Waits for prefetched response of Long Poll server.
+     *
+     * @param prefetched prefetched response.
+     * @return response of Long Poll server.
+     * @throws VkApiException if errors occur.
+     */
+    private static GetUpdates.ResponseBody await(CompletableFuture<GetUpdates.ResponseBody> prefetched) throws VkApiException {
+        try {
+            return prefetched.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VkApiException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof VkApiException) {
+                throw (VkApiException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new VkApiException(e.getCause());
+        }
+    }
+
+    /**
+     * Recovers from Long Poll failure according to {@code failed} code. Only the codes 2 and 3 require a call to VK API.
+     *
+     * @param e Long Poll failure.
+     * @throws VkApiException if errors occur.
+     */
+    private void recover(VkLongPollFailedException e) throws VkApiException {
+        switch (e.getCode()) {
+            case VkLongPollFailedException.HISTORY_OUTDATED:
+                if (e.getTs() != null) {
+                    setTs(e.getTs());
+                    return;
+                }
+                break;
+
+            case VkLongPollFailedException.KEY_EXPIRED:
+                connect(getLongPollServer(), ts);
+                return;
+        }
+        initialize();
+    }
+
+    /**
+     * Stops listening to VK updates. Pending request to Long Poll server is cancelled, while dispatched updates are
+     * still being handled.
      */
     public void stopPolling() {
         polling = false;
+        CompletableFuture<GetUpdates.ResponseBody> request = inFlight;
+        if (request != null) {
+            request.cancel(false);
+        }
+    }
+
+    /**
+     * Stops listening to VK updates and waits for dispatched updates to be handled. Then saves {@code ts} checkpoint,
+     * closes {@link UpdateDispatcher} and idle connections of {@link VkHttpClient}. The client itself is not closed,
+     * since it may be shared with other bots.
+     *
+     * @param timeout max time to wait for handlers.
+     * @return {@code true} if all dispatched updates were handled within timeout.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        stopPolling();
+        boolean drained = awaitUntil(terminated, deadline) && awaitUntil(checkpoint, deadline);
+        updateDispatcher.close();
+        try {
+            flushTs();
+        } catch (VkApiException e) {
+            LOGGER.error("Failed to save ts checkpoint.", e);
+        }
+        httpClient.evictIdleConnections();
+        return drained;
+    }
+
+    /**
+     * Waits for future to complete.
+     *
+     * @param future   future to wait for.
+     * @param deadline time to wait until (in nanoseconds).
+     * @return {@code true} if future is completed before deadline.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static boolean awaitUntil(CompletableFuture<?> future, long deadline) throws InterruptedException {
+        try {
+            future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
 
     /**
-     * Initializes {@link LongPollBot}.
+     * Initializes {@link LongPollBot}: requests Long Poll server and continues polling from its current {@code ts}.
+     * Called when polling starts, before saved {@code ts} is applied, and when updates after the current {@code ts}
+     * are lost. Renewal of expired key or session keeps the current {@code ts} and does not call this method.
      *
      * @throws VkApiException if errors occur.
      */
     public void initialize() throws VkApiException {
-        initializedAt = LocalDateTime.now();
+        JsonObject longPollServer = getLongPollServer();
+        connect(longPollServer, longPollServer.get("ts").getAsInt());
+    }
 
-        JsonObject longPollServer = vk.other.execute()
+    /**
+     * Gets Long Poll server of the bot's group.
+     *
+     * @return Long Poll server {@code key}, {@code server} and {@code ts}.
+     * @throws VkApiException if errors occur.
+     */
+    private JsonObject getLongPollServer() throws VkApiException {
+        initializedAt = LocalDateTime.now();
+        return vk.other.execute()
                 .setCode("return API.groups.getLongPollServer({\"group_id\":API.groups.getById()@.id[0]});")
                 .execute()
                 .getResponse()
                 .getAsJsonObject();
+    }
 
+    /**
+     * Prepares requests to Long Poll server.
+     *
+     * @param longPollServer Long Poll server {@code key} and {@code server}.
+     * @param ts             {@code ts} to continue polling with.
+     */
+    private void connect(JsonObject longPollServer, int ts) {
         getUpdates = new GetUpdates(longPollServer.get("server").getAsString())
                 .setKey(longPollServer.get("key").getAsString())
-                .setTs(longPollServer.get("ts").getAsInt());
+                .setWait(wait);
+        getUpdates.setUpdateFilter(type -> updateDispatcher.accepts(type));
+        getUpdates.setHttpClient(httpClient);
+        setTs(ts);
+    }
+
+    /**
+     * Sets {@code ts} of the next request to Long Poll server.
+     *
+     * @param ts {@code ts} value.
+     */
+    private void setTs(int ts) {
+        this.ts = ts;
+        getUpdates.setTs(ts);
+    }
+
+    /**
+     * Sets store of {@code ts} checkpoints. After each batch of updates is handled, its {@code ts} is saved, and
+     * {@link LongPollBot#startPolling()} resumes from saved {@code ts}, so updates received while the bot was not
+     * running are not lost. By default, {@code ts} is kept in memory.
+     * <pre>{@code
+     * setTsStore(new AsyncTsStore(new FileTsStore(Paths.get("ts")), Duration.ofSeconds(1)));
+     * }</pre>
+     *
+     * @param tsStore store of {@code ts} checkpoints.
+     */
+    public void setTsStore(TsStore tsStore) {
+        this.tsStore = tsStore;
+    }
+
+    /**
+     * Sets deduplicator of updates. Updates with recently seen {@code event_id} are not dispatched, e.g. when resumed
+     * {@code ts} was saved before the last batch was handled. Disabled by default.
+     * <pre>{@code
+     * setEventDeduplicator(new EventDeduplicator(10_000, Duration.ofHours(1)));
+     * }</pre>
+     *
+     * @param eventDeduplicator deduplicator of updates or {@code null} to disable deduplication.
+     */
+    public void setEventDeduplicator(EventDeduplicator eventDeduplicator) {
+        this.eventDeduplicator = eventDeduplicator;
     }
 
     /**
@@ -99,6 +458,41 @@ public abstract class LongPollBot extends VkBot {
         this.sessionDuration = sessionDuration;
     }
 
+    /**
+     * Sets time to wait for updates on Long Poll server (in seconds). VK allows at most 90 seconds. The value should
+     * be less than read timeout of {@link VkHttpClient}.
+     *
+     * @param wait time to wait for updates (in seconds).
+     */
+    public void setWait(int wait) {
+        this.wait = wait;
+    }
+
+    /**
+     * Sets whether the next request to Long Poll server is sent as soon as the current batch is received, i.e. while
+     * the current batch is still being handled. This hides handling time from event latency. Batches are still
+     * dispatched one by one, in order of receipt.
+     *
+     * @param prefetch whether the next batch is requested before the current batch is handled.
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Sets dispatcher of received updates.
+     * For example, {@link api.longpoll.bots.dispatch.ConcurrentUpdateDispatcher} lets polling thread request the next
+     * batch while previous updates are still being handled:
+     * <pre>{@code
+     * setUpdateDispatcher(new ConcurrentUpdateDispatcher(this::handle, 8, 1000));
+     * }</pre>
+     *
+     * @param updateDispatcher dispatcher of received updates.
+     */
+    public void setUpdateDispatcher(UpdateDispatcher updateDispatcher) {
+        this.updateDispatcher = updateDispatcher;
+    }
+
     /**
      * Checks whether Long Poll session is expired.
      *
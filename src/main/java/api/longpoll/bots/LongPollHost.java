@@ -0,0 +1,482 @@
+package api.longpoll.bots;
+
+import api.longpoll.bots.exceptions.VkLongPollFailedException;
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.methods.impl.groups.GetLongPollServer;
+import api.longpoll.bots.model.events.Update;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Long Poll sessions of many groups in one process.
+ * <p>
+ * Unlike {@link LongPollBot}, sessions have no polling threads: each session is a chain of asynchronous
+ * {@code a_check} requests sent by one shared {@link VkHttpClient}, and an idle session holds only its request and
+ * {@code ts}. Received updates are routed to bots by {@link Update#getGroupId()}, and objects of update types a bot
+ * does not {@link VkBot#accepts(Update.Type) accept} are not deserialized. Each session obtains and renews its Long Poll
+ * server independently, so failure of one group does not affect the others.
+ * <p>
+ * {@code a_check} requests are queued separately from other requests of {@link VkHttpClient}, with limits which follow
+ * the number of groups, so every group always has its request running and other VK API requests are not delayed by
+ * long polls. Every pending {@code a_check} request still occupies a dispatcher thread of {@link VkHttpClient}: the
+ * threads are virtual on JDK 21+, while on older JDKs each group holds a platform thread.
+ * <pre>{@code
+ * VkHttpClient httpClient = VkHttpClient.getDefault();
+ * LongPollHost host = new LongPollHost(httpClient);
+ * host.addGroup(123, new MyBot(httpClient, "token 123"));
+ * host.addGroup(456, new MyBot(httpClient, "token 456"));
+ * host.start();
+ * }</pre>
+ */
+public class LongPollHost {
+    /**
+     * {@link Logger} instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LongPollHost.class);
+
+    /**
+     * Default session duration (in hours).
+     */
+    private static final long DEFAULT_SESSION_DURATION = 9;
+
+    /**
+     * Default time to wait for updates on Long Poll server (in seconds).
+     */
+    private static final int DEFAULT_WAIT = 25;
+
+    /**
+     * Default delay before failed request is repeated.
+     */
+    private static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(5);
+
+    /**
+     * HTTP client shared by all sessions.
+     */
+    private final VkHttpClient httpClient;
+
+    /**
+     * HTTP client of requests to Long Poll server. Shares connections and threads with
+     * {@link LongPollHost#httpClient}, while max number of its requests equals the number of groups.
+     */
+    private final VkHttpClient longPollClient;
+
+    /**
+     * Bots by group ID.
+     */
+    private final Map<Integer, VkBot> bots = new ConcurrentHashMap<>();
+
+    /**
+     * Long Poll sessions by group ID.
+     */
+    private final Map<Integer, GroupSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Runs handlers of received updates. By default, updates are handled on dispatcher threads of
+     * {@link LongPollHost#httpClient}.
+     */
+    private Executor executor = Runnable::run;
+
+    /**
+     * Repeats failed requests after delay.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Session duration (in hours).
+     */
+    private long sessionDuration = DEFAULT_SESSION_DURATION;
+
+    /**
+     * Time to wait for updates on Long Poll server (in seconds).
+     */
+    private int wait = DEFAULT_WAIT;
+
+    /**
+     * Delay before failed request is repeated.
+     */
+    private Duration retryDelay = DEFAULT_RETRY_DELAY;
+
+    /**
+     * Whether sessions are running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Number of the current run, incremented by {@link LongPollHost#start()}. Responses to requests sent in previous
+     * runs are ignored, so a late response cannot start a second chain of requests of a group.
+     */
+    private volatile int run;
+
+    public LongPollHost() {
+        this(VkHttpClient.getDefault());
+    }
+
+    public LongPollHost(VkHttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.longPollClient = httpClient.withSeparateQueue(1);
+    }
+
+    /**
+     * Adds group. If the host is running, polling of the group begins immediately.
+     *
+     * @param groupId group ID.
+     * @param bot     bot to handle updates of the group. Its access token is used to obtain Long Poll server.
+     * @return current instance.
+     */
+    public LongPollHost addGroup(int groupId, VkBot bot) {
+        bots.put(groupId, bot);
+        GroupSession session = new GroupSession(groupId, bot);
+        GroupSession previous = sessions.put(groupId, session);
+        if (previous != null) {
+            previous.close();
+        }
+        resizeLongPollQueue();
+        if (running) {
+            session.connect(null, run);
+        }
+        return this;
+    }
+
+    /**
+     * Removes group. Pending request of the group is cancelled.
+     *
+     * @param groupId group ID.
+     */
+    public void removeGroup(int groupId) {
+        GroupSession session = sessions.remove(groupId);
+        if (session != null) {
+            session.close();
+        }
+        bots.remove(groupId);
+        resizeLongPollQueue();
+    }
+
+    /**
+     * Begins polling of all added groups. Returns immediately. Groups polled before {@link LongPollHost#stop()}
+     * continue from their last {@code ts}, so updates received while the host was stopped are not skipped.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LongPollHost");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int currentRun = ++run;
+        running = true;
+        sessions.values().forEach(session -> session.connect(session.ts, currentRun));
+    }
+
+    /**
+     * Stops polling. Pending requests are cancelled.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        sessions.values().forEach(GroupSession::cancel);
+    }
+
+    /**
+     * Gets number of added groups.
+     *
+     * @return number of added groups.
+     */
+    public int getGroupCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Sets executor to run handlers of received updates on. Updates of one group are handled batch by batch.
+     *
+     * @param executor executor to run handlers on.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets session duration (in hours).
+     *
+     * @param sessionDuration session duration (in hours).
+     */
+    public void setSessionDuration(long sessionDuration) {
+        this.sessionDuration = sessionDuration;
+    }
+
+    /**
+     * Sets time to wait for updates on Long Poll server (in seconds). VK allows at most 90 seconds. The value should
+     * be less than read timeout of {@link VkHttpClient}.
+     *
+     * @param wait time to wait for updates (in seconds).
+     */
+    public void setWait(int wait) {
+        this.wait = wait;
+    }
+
+    /**
+     * Sets delay before request failed due to network or VK API error is repeated.
+     *
+     * @param retryDelay delay before failed request is repeated.
+     */
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Lets requests of all groups to Long Poll server run at once.
+     */
+    private void resizeLongPollQueue() {
+        int maxRequests = Math.max(sessions.size(), 1);
+        longPollClient.getOkHttpClient().dispatcher().setMaxRequests(maxRequests);
+        longPollClient.getOkHttpClient().dispatcher().setMaxRequestsPerHost(maxRequests);
+    }
+
+    /**
+     * Hands updates over to bots of their groups. Updates of unknown groups are skipped.
+     *
+     * @param updates received updates.
+     */
+    private void route(List<Update> updates) {
+        Map<Integer, List<Update>> updatesByGroup = new LinkedHashMap<>();
+        for (Update update : updates) {
+            updatesByGroup.computeIfAbsent(update.getGroupId(), groupId -> new ArrayList<>()).add(update);
+        }
+        updatesByGroup.forEach((groupId, groupUpdates) -> {
+            VkBot bot = groupId != null ? bots.get(groupId) : null;
+            if (bot == null) {
+                LOGGER.warn("Skipped {} updates of unknown group {}.", groupUpdates.size(), groupId);
+                return;
+            }
+            try {
+                bot.handle(groupUpdates);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to handle updates of group {}.", groupId, e);
+            }
+        });
+    }
+
+    /**
+     * Long Poll session of a group.
+     */
+    private class GroupSession {
+        /**
+         * Group ID.
+         */
+        private final int groupId;
+
+        /**
+         * Bot of the group.
+         */
+        private final VkBot bot;
+
+        /**
+         * Request to Long Poll server.
+         */
+        private GetUpdates getUpdates;
+
+        /**
+         * {@code ts} of the next request or {@code null} if it is not known yet.
+         */
+        private volatile Integer ts;
+
+        /**
+         * Time when Long Poll server should be renewed (in nanoseconds).
+         */
+        private long expiresAt;
+
+        /**
+         * The latest request of the session.
+         */
+        private volatile CompletableFuture<?> inFlight;
+
+        /**
+         * Whether the session belongs to the host.
+         */
+        private volatile boolean active = true;
+
+        private GroupSession(int groupId, VkBot bot) {
+            this.groupId = groupId;
+            this.bot = bot;
+        }
+
+        /**
+         * Obtains Long Poll server and begins polling.
+         *
+         * @param ts         {@code ts} to continue polling with or {@code null} to use {@code ts} of Long Poll server.
+         * @param currentRun number of run the request belongs to.
+         */
+        private void connect(Integer ts, int currentRun) {
+            if (!isPolling(currentRun)) {
+                return;
+            }
+            send(new GetLongPollServer(bot.getAccessToken())
+                    .setGroupId(groupId)
+                    .setHttpClient(httpClient)
+                    .executeAsync(), currentRun)
+                    .whenComplete((responseBody, e) -> {
+                        if (!isPolling(currentRun)) {
+                            return;
+                        }
+                        if (e != null) {
+                            LOGGER.error("Failed to get Long Poll server of group {}.", groupId, e);
+                            retry(() -> connect(ts, currentRun), currentRun);
+                            return;
+                        }
+                        GetLongPollServer.ResponseBody.Response longPollServer = responseBody.getResponse();
+                        getUpdates = new GetUpdates(longPollServer.getServer())
+                                .setKey(longPollServer.getKey())
+                                .setWait(wait);
+                        getUpdates.setUpdateFilter(bot::accepts);
+                        getUpdates.setHttpClient(longPollClient);
+                        setTs(ts != null ? ts : longPollServer.getTs());
+                        expiresAt = System.nanoTime() + TimeUnit.HOURS.toNanos(sessionDuration);
+                        poll(currentRun);
+                    });
+        }
+
+        /**
+         * Requests the next batch of updates.
+         *
+         * @param currentRun number of run the request belongs to.
+         */
+        private void poll(int currentRun) {
+            if (!isPolling(currentRun)) {
+                return;
+            }
+            if (System.nanoTime() - expiresAt >= 0) {
+                connect(ts, currentRun);
+                return;
+            }
+            send(getUpdates.executeAsync(executor), currentRun).whenComplete((updates, e) -> {
+                if (!isPolling(currentRun)) {
+                    return;
+                }
+                if (e != null) {
+                    recover(e, currentRun);
+                    return;
+                }
+                setTs(updates.getTs());
+                route(updates.getEvents());
+                poll(currentRun);
+            });
+        }
+
+        /**
+         * Recovers from failed request to Long Poll server.
+         *
+         * @param e          request failure.
+         * @param currentRun number of run the request belongs to.
+         */
+        private void recover(Throwable e, int currentRun) {
+            if (!(e instanceof VkLongPollFailedException)) {
+                LOGGER.error("Failed to get updates of group {}.", groupId, e);
+                retry(() -> poll(currentRun), currentRun);
+                return;
+            }
+
+            VkLongPollFailedException failure = (VkLongPollFailedException) e;
+            switch (failure.getCode()) {
+                case VkLongPollFailedException.HISTORY_OUTDATED:
+                    if (failure.getTs() != null) {
+                        setTs(failure.getTs());
+                        poll(currentRun);
+                        return;
+                    }
+                    break;
+
+                case VkLongPollFailedException.KEY_EXPIRED:
+                    connect(ts, currentRun);
+                    return;
+            }
+            connect(null, currentRun);
+        }
+
+        /**
+         * Tracks request so that it is cancelled once the session stops.
+         *
+         * @param request    request.
+         * @param currentRun number of run the request belongs to.
+         * @param <T>        response type.
+         * @return the same request.
+         */
+        private <T> CompletableFuture<T> send(CompletableFuture<T> request, int currentRun) {
+            inFlight = request;
+            if (!isPolling(currentRun)) {
+                request.cancel(false);
+            }
+            return request;
+        }
+
+        /**
+         * Cancels pending request of the session.
+         */
+        private void cancel() {
+            CompletableFuture<?> request = inFlight;
+            if (request != null) {
+                request.cancel(false);
+            }
+        }
+
+        /**
+         * Stops the session and cancels its pending request.
+         */
+        private void close() {
+            active = false;
+            cancel();
+        }
+
+        /**
+         * Repeats action after {@link LongPollHost#retryDelay}.
+         *
+         * @param action     action to repeat.
+         * @param currentRun number of run the action belongs to.
+         */
+        private void retry(Runnable action, int currentRun) {
+            try {
+                if (isPolling(currentRun)) {
+                    scheduler.schedule(action, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Host is stopped, group {} is not retried.", groupId);
+            }
+        }
+
+        /**
+         * Sets {@code ts} of the next request to Long Poll server.
+         *
+         * @param ts {@code ts} value.
+         */
+        private void setTs(int ts) {
+            this.ts = ts;
+            getUpdates.setTs(ts);
+        }
+
+        /**
+         * Checks whether the session should keep polling in the run.
+         *
+         * @param currentRun number of run.
+         * @return {@code true} if the session should keep polling.
+         */
+        private boolean isPolling(int currentRun) {
+            return running && active && run == currentRun;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package api.longpoll.bots;
 
+import api.longpoll.bots.dispatch.UpdateListener;
+import api.longpoll.bots.dispatch.UpdateListenerRegistry;
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.VkBotsMethods;
 import api.longpoll.bots.model.events.Update;
 import api.longpoll.bots.model.events.boards.BoardPost;
@@ -29,24 +32,98 @@ import api.longpoll.bots.model.objects.basic.WallPost;
 import api.longpoll.bots.model.objects.media.Audio;
 import api.longpoll.bots.model.objects.media.Photo;
 import api.longpoll.bots.model.objects.media.Video;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * VK bot.
  */
 public abstract class VkBot {
     /**
-     * {@link Logger} object.
-     */
-    private static final Logger LOGGER = LoggerFactory.getLogger(VkBot.class);
+     * {@code on*} handler methods which can be overridden.
+     */
+    private static final List<HandlerMethod<?>> HANDLER_METHODS = new ArrayList<>();
+
+    static {
+        bind(Update.Type.MESSAGE_NEW, "onMessageNew", MessageNew.class, VkBot::onMessageNew);
+        bind(Update.Type.MESSAGE_REPLY, "onMessageReply", Message.class, VkBot::onMessageReply);
+        bind(Update.Type.MESSAGE_EDIT, "onMessageEdit", Message.class, VkBot::onMessageEdit);
+        bind(Update.Type.MESSAGE_EVENT, "onMessageEvent", MessageEvent.class, VkBot::onMessageEvent);
+        bind(Update.Type.PHOTO_NEW, "onPhotoNew", Photo.class, VkBot::onPhotoNew);
+        bind(Update.Type.PHOTO_COMMENT_NEW, "onPhotoCommentNew", PhotoComment.class, VkBot::onPhotoCommentNew);
+        bind(Update.Type.PHOTO_COMMENT_EDIT, "onPhotoCommentEdit", PhotoComment.class, VkBot::onPhotoCommentEdit);
+        bind(Update.Type.PHOTO_COMMENT_DELETE, "onPhotoCommentDelete", PhotoCommentDelete.class, VkBot::onPhotoCommentDelete);
+        bind(Update.Type.PHOTO_COMMENT_RESTORE, "onPhotoCommentRestore", PhotoComment.class, VkBot::onPhotoCommentRestore);
+        bind(Update.Type.AUDIO_NEW, "onAudioNew", Audio.class, VkBot::onAudioNew);
+        bind(Update.Type.VIDEO_NEW, "onVideoNew", Video.class, VkBot::onVideoNew);
+        bind(Update.Type.VIDEO_COMMENT_NEW, "onVideoCommentNew", VideoComment.class, VkBot::onVideoCommentNew);
+        bind(Update.Type.VIDEO_COMMENT_EDIT, "onVideoCommentEdit", VideoComment.class, VkBot::onVideoCommentEdit);
+        bind(Update.Type.VIDEO_COMMENT_DELETE, "onVideoCommentDelete", VideoCommentDelete.class, VkBot::onVideoCommentDelete);
+        bind(Update.Type.VIDEO_COMMENT_RESTORE, "onVideoCommentRestore", VideoComment.class, VkBot::onVideoCommentRestore);
+        bind(Update.Type.WALL_POST_NEW, "onWallPostNew", WallPost.class, VkBot::onWallPostNew);
+        bind(Update.Type.WALL_REPOST, "onWallRepost", WallPost.class, VkBot::onWallRepost);
+        bind(Update.Type.LIKE_ADD, "onLikeAdd", Like.class, VkBot::onLikeAdd);
+        bind(Update.Type.LIKE_REMOVE, "onLikeRemove", Like.class, VkBot::onLikeRemove);
+        bind(Update.Type.WALL_REPLY_NEW, "onWallReplyNew", WallReply.class, VkBot::onWallReplyNew);
+        bind(Update.Type.WALL_REPLY_EDIT, "onWallReplyEdit", WallReply.class, VkBot::onWallReplyEdit);
+        bind(Update.Type.WALL_REPLY_DELETE, "onWallReplyDelete", WallReplyDelete.class, VkBot::onWallReplyDelete);
+        bind(Update.Type.WALL_REPLY_RESTORE, "onWallReplyRestore", WallReply.class, VkBot::onWallReplyRestore);
+        bind(Update.Type.BOARD_POST_NEW, "onBoardPostNew", BoardPost.class, VkBot::onBoardPostNew);
+        bind(Update.Type.BOARD_POST_EDIT, "onBoardPostEdit", BoardPost.class, VkBot::onBoardPostEdit);
+        bind(Update.Type.BOARD_POST_DELETE, "onBoardPostDelete", BoardPostDelete.class, VkBot::onBoardPostDelete);
+        bind(Update.Type.BOARD_POST_RESTORE, "onBoardPostRestore", BoardPost.class, VkBot::onBoardPostRestore);
+        bind(Update.Type.MARKET_COMMENT_NEW, "onMarketCommentNew", MarketComment.class, VkBot::onMarketCommentNew);
+        bind(Update.Type.MARKET_COMMENT_EDIT, "onMarketCommentEdit", MarketComment.class, VkBot::onMarketCommentEdit);
+        bind(Update.Type.MARKET_COMMENT_RESTORE, "onMarketCommentRestore", MarketComment.class, VkBot::onMarketCommentRestore);
+        bind(Update.Type.MARKET_COMMENT_DELETE, "onMarketCommentDelete", MarketCommentDelete.class, VkBot::onMarketCommentDelete);
+        bind(Update.Type.MARKET_ORDER_NEW, "onMarketOrderNew", MarketOrder.class, VkBot::onMarketOrderNew);
+        bind(Update.Type.MARKET_ORDER_EDIT, "onMarketOrderEdit", MarketOrder.class, VkBot::onMarketOrderEdit);
+        bind(Update.Type.GROUP_LEAVE, "onGroupLeave", GroupLeave.class, VkBot::onGroupLeave);
+        bind(Update.Type.GROUP_JOIN, "onGroupJoin", GroupJoin.class, VkBot::onGroupJoin);
+        bind(Update.Type.USER_BLOCK, "onUserBlock", UserBlock.class, VkBot::onUserBlock);
+        bind(Update.Type.USER_UNBLOCK, "onUserUnblock", UserUnblock.class, VkBot::onUserUnblock);
+        bind(Update.Type.GROUP_CHANGE_SETTINGS, "onGroupChangeSettings", GroupChangeSettings.class, VkBot::onGroupChangeSettings);
+        bind(Update.Type.GROUP_CHANGE_PHOTO, "onGroupChangePhoto", GroupChangePhoto.class, VkBot::onGroupChangePhoto);
+        bind(Update.Type.VKPAY_TRANSACTION, "onVkpayTransaction", VkpayTransaction.class, VkBot::onVkpayTransaction);
+        bind(Update.Type.APP_PAYLOAD, "onAppPayload", AppPayload.class, VkBot::onAppPayload);
+        bind(Update.Type.MESSAGE_TYPING_STATE, "onMessageTypingState", MessageTypingState.class, VkBot::onMessageTypingState);
+        bind(Update.Type.MESSAGE_ALLOW, "onMessageAllow", MessageAllow.class, VkBot::onMessageAllow);
+        bind(Update.Type.MESSAGE_DENY, "onMessageDeny", MessageDeny.class, VkBot::onMessageDeny);
+        bind(Update.Type.POLL_VOTE_NEW, "onPollVoteNew", PollVoteNew.class, VkBot::onPollVoteNew);
+    }
+
+    /**
+     * Registry of update listeners.
+     */
+    private final UpdateListenerRegistry listenerRegistry = new UpdateListenerRegistry();
+
+    /**
+     * Whether {@link VkBot#handle(List)} or {@link VkBot#handle(Update)} is overridden, i.e. update types consumed
+     * by this bot are unknown.
+     */
+    private final boolean handleOverridden = isOverridden("handle", List.class) || isOverridden("handle", Update.class);
+
+    /**
+     * HTTP client shared by all VK API methods of this bot.
+     */
+    protected final VkHttpClient httpClient;
 
     /**
      * VK Bots API methods.
      */
-    protected VkBotsMethods vk = new VkBotsMethods(this::getAccessToken);
+    protected VkBotsMethods vk;
+
+    public VkBot() {
+        this(VkHttpClient.getDefault());
+    }
+
+    public VkBot(VkHttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.vk = new VkBotsMethods(this::getAccessToken, httpClient);
+        registerHandlerMethods();
+    }
 
     /**
      * Gets bot access token.
@@ -61,194 +138,88 @@ public abstract class VkBot {
      * @param updates list of VK updates.
      */
     public void handle(List<Update> updates) {
-        updates.forEach(update -> {
-            Update.Type updateType = update.getType();
-            switch (updateType) {
-                case MESSAGE_NEW:
-                    onMessageNew((MessageNew) update.getObject());
-                    break;
-
-                case MESSAGE_REPLY:
-                    onMessageReply((Message) update.getObject());
-                    break;
-
-                case MESSAGE_EDIT:
-                    onMessageEdit((Message) update.getObject());
-                    break;
-
-                case MESSAGE_EVENT:
-                    onMessageEvent((MessageEvent) update.getObject());
-                    break;
-
-                case PHOTO_NEW:
-                    onPhotoNew((Photo) update.getObject());
-                    break;
-
-                case PHOTO_COMMENT_NEW:
-                    onPhotoCommentNew((PhotoComment) update.getObject());
-                    break;
-
-                case PHOTO_COMMENT_EDIT:
-                    onPhotoCommentEdit((PhotoComment) update.getObject());
-                    break;
-
-                case PHOTO_COMMENT_DELETE:
-                    onPhotoCommentDelete((PhotoCommentDelete) update.getObject());
-                    break;
-
-                case PHOTO_COMMENT_RESTORE:
-                    onPhotoCommentRestore((PhotoComment) update.getObject());
-                    break;
-
-                case AUDIO_NEW:
-                    onAudioNew((Audio) update.getObject());
-                    break;
-
-                case VIDEO_NEW:
-                    onVideoNew((Video) update.getObject());
-                    break;
-
-                case VIDEO_COMMENT_NEW:
-                    onVideoCommentNew((VideoComment) update.getObject());
-                    break;
-
-                case VIDEO_COMMENT_EDIT:
-                    onVideoCommentEdit((VideoComment) update.getObject());
-                    break;
-
-                case VIDEO_COMMENT_DELETE:
-                    onVideoCommentDelete((VideoCommentDelete) update.getObject());
-                    break;
-
-                case VIDEO_COMMENT_RESTORE:
-                    onVideoCommentRestore((VideoComment) update.getObject());
-                    break;
-
-                case WALL_POST_NEW:
-                    onWallPostNew((WallPost) update.getObject());
-                    break;
-
-                case WALL_REPOST:
-                    onWallRepost((WallPost) update.getObject());
-                    break;
-
-                case LIKE_ADD:
-                    onLikeAdd((Like) update.getObject());
-                    break;
-
-                case LIKE_REMOVE:
-                    onLikeRemove((Like) update.getObject());
-                    break;
-
-                case WALL_REPLY_NEW:
-                    onWallReplyNew((WallReply) update.getObject());
-                    break;
-
-                case WALL_REPLY_EDIT:
-                    onWallReplyEdit((WallReply) update.getObject());
-                    break;
-
-                case WALL_REPLY_DELETE:
-                    onWallReplyDelete((WallReplyDelete) update.getObject());
-                    break;
-
-                case WALL_REPLY_RESTORE:
-                    onWallReplyRestore((WallReply) update.getObject());
-                    break;
-
-                case BOARD_POST_NEW:
-                    onBoardPostNew((BoardPost) update.getObject());
-                    break;
-
-                case BOARD_POST_EDIT:
-                    onBoardPostEdit((BoardPost) update.getObject());
-                    break;
-
-                case BOARD_POST_DELETE:
-                    onBoardPostDelete((BoardPostDelete) update.getObject());
-                    break;
-
-                case BOARD_POST_RESTORE:
-                    onBoardPostRestore((BoardPost) update.getObject());
-                    break;
-
-                case MARKET_COMMENT_NEW:
-                    onMarketCommentNew((MarketComment) update.getObject());
-                    break;
-
-                case MARKET_COMMENT_EDIT:
-                    onMarketCommentEdit((MarketComment) update.getObject());
-                    break;
-
-                case MARKET_COMMENT_RESTORE:
-                    onMarketCommentRestore((MarketComment) update.getObject());
-                    break;
-
-                case MARKET_COMMENT_DELETE:
-                    onMarketCommentDelete((MarketCommentDelete) update.getObject());
-                    break;
-
-                case MARKET_ORDER_NEW:
-                    onMarketOrderNew((MarketOrder) update.getObject());
-                    break;
-
-                case MARKET_ORDER_EDIT:
-                    onMarketOrderEdit((MarketOrder) update.getObject());
-                    break;
-
-                case GROUP_LEAVE:
-                    onGroupLeave((GroupLeave) update.getObject());
-                    break;
-
-                case GROUP_JOIN:
-                    onGroupJoin((GroupJoin) update.getObject());
-                    break;
-
-                case USER_BLOCK:
-                    onUserBlock((UserBlock) update.getObject());
-                    break;
-
-                case USER_UNBLOCK:
-                    onUserUnblock((UserUnblock) update.getObject());
-                    break;
-
-                case GROUP_CHANGE_SETTINGS:
-                    onGroupChangeSettings((GroupChangeSettings) update.getObject());
-                    break;
-
-                case GROUP_CHANGE_PHOTO:
-                    onGroupChangePhoto((GroupChangePhoto) update.getObject());
-                    break;
+        updates.forEach(this::handle);
+    }
 
-                case VKPAY_TRANSACTION:
-                    onVkpayTransaction((VkpayTransaction) update.getObject());
-                    break;
+    /**
+     * Handles VK update.
+     * Updates of types which have no listeners are skipped.
+     *
+     * @param update VK update.
+     */
+    public void handle(Update update) {
+        listenerRegistry.handle(update);
+    }
 
-                case APP_PAYLOAD:
-                    onAppPayload((AppPayload) update.getObject());
-                    break;
+    /**
+     * Checks whether updates of provided type are consumed by this bot, i.e. have listeners or are passed to
+     * overridden {@link VkBot#handle(List)} or {@link VkBot#handle(Update)}. Objects of updates which are not
+     * consumed need not be deserialized.
+     *
+     * @param type update type.
+     * @return {@code true} if updates of provided type are consumed by this bot.
+     */
+    public boolean accepts(Update.Type type) {
+        return handleOverridden || listenerRegistry.hasListeners(type);
+    }
 
-                case MESSAGE_TYPING_STATE:
-                    onMessageTypingState((MessageTypingState) update.getObject());
-                    break;
+    /**
+     * Registers listener of updates of provided type.
+     * Listeners of the same type are called in order of registration, after overridden {@code on*} handler method.
+     *
+     * @param type        update type.
+     * @param objectClass class of update object.
+     * @param listener    update listener.
+     * @param <T>         update object type.
+     */
+    public <T extends Update.Object> void addListener(Update.Type type, Class<T> objectClass, UpdateListener<? super T> listener) {
+        listenerRegistry.register(type, objectClass, listener);
+    }
 
-                case MESSAGE_ALLOW:
-                    onMessageAllow((MessageAllow) update.getObject());
-                    break;
+    /**
+     * Gets registry of update listeners.
+     *
+     * @return registry of update listeners.
+     */
+    public UpdateListenerRegistry getListenerRegistry() {
+        return listenerRegistry;
+    }
 
-                case MESSAGE_DENY:
-                    onMessageDeny((MessageDeny) update.getObject());
-                    break;
+    /**
+     * Checks whether method of {@link VkBot} is overridden by this bot.
+     *
+     * @param name           method name.
+     * @param parameterTypes method parameter types.
+     * @return {@code true} if method is overridden.
+     */
+    private boolean isOverridden(String name, Class<?>... parameterTypes) {
+        try {
+            return getClass().getMethod(name, parameterTypes).getDeclaringClass() != VkBot.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-                case POLL_VOTE_NEW:
-                    onPollVoteNew((PollVoteNew) update.getObject());
-                    break;
+    /**
+     * Registers overridden {@code on*} handler methods as update listeners.
+     */
+    private void registerHandlerMethods() {
+        for (HandlerMethod<?> handlerMethod : HANDLER_METHODS) {
+            handlerMethod.registerIfOverridden(this);
+        }
+    }
 
-                default:
-                    LOGGER.warn("No update handler found update updateType: {}", updateType);
-                    break;
-            }
-        });
+    /**
+     * Binds update type to {@code on*} handler method.
+     *
+     * @param type        update type.
+     * @param methodName  handler method name.
+     * @param objectClass class of update object.
+     * @param handler     calls handler method.
+     * @param <T>         update object type.
+     */
+    private static <T extends Update.Object> void bind(Update.Type type, String methodName, Class<T> objectClass, BiConsumer<VkBot, T> handler) {
+        HANDLER_METHODS.add(new HandlerMethod<>(type, methodName, objectClass, handler));
     }
 
     /**
@@ -610,4 +581,53 @@ public abstract class VkBot {
      */
     public void onPollVoteNew(PollVoteNew pollVoteNew) {
     }
+
+    /**
+     * Binding of update type to {@code on*} handler method.
+     *
+     * @param <T> update object type.
+     */
+    private static class HandlerMethod<T extends Update.Object> {
+        /**
+         * Update type.
+         */
+        private final Update.Type type;
+
+        /**
+         * Handler method name.
+         */
+        private final String methodName;
+
+        /**
+         * Class of update object.
+         */
+        private final Class<T> objectClass;
+
+        /**
+         * Calls handler method.
+         */
+        private final BiConsumer<VkBot, T> handler;
+
+        private HandlerMethod(Update.Type type, String methodName, Class<T> objectClass, BiConsumer<VkBot, T> handler) {
+            this.type = type;
+            this.methodName = methodName;
+            this.objectClass = objectClass;
+            this.handler = handler;
+        }
+
+        /**
+         * Registers handler method of {@code bot} as update listener if the method is overridden.
+         *
+         * @param bot VK bot.
+         */
+        private void registerIfOverridden(VkBot bot) {
+            try {
+                if (bot.getClass().getMethod(methodName, objectClass).getDeclaringClass() != VkBot.class) {
+                    bot.addListener(type, objectClass, object -> handler.accept(bot, object));
+                }
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
 }
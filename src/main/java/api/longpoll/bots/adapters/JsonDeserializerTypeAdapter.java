@@ -0,0 +1,65 @@
+package api.longpoll.bots.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Adapts {@link JsonDeserializer} to {@link TypeAdapter} the same way Gson does for {@code @JsonAdapter} fields:
+ * {@code null} values are not passed to deserializer, and values are serialized by Gson defaults.
+ *
+ * @param <T> deserialized type.
+ */
+public class JsonDeserializerTypeAdapter<T> extends TypeAdapter<T> {
+    /**
+     * {@link Gson} instance.
+     */
+    private final Gson gson;
+
+    /**
+     * Wrapped deserializer.
+     */
+    private final JsonDeserializer<T> deserializer;
+
+    /**
+     * Deserialized type.
+     */
+    private final Type type;
+
+    /**
+     * Deserialization context backed by {@link Gson} instance.
+     */
+    private final JsonDeserializationContext context;
+
+    public JsonDeserializerTypeAdapter(Gson gson, JsonDeserializer<T> deserializer, Type type) {
+        this.gson = gson;
+        this.deserializer = deserializer;
+        this.type = type;
+        this.context = new JsonDeserializationContext() {
+            @Override
+            public <R> R deserialize(JsonElement json, Type typeOfT) throws JsonParseException {
+                return gson.fromJson(json, typeOfT);
+            }
+        };
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        JsonElement jsonElement = JsonParser.parseReader(in);
+        return jsonElement.isJsonNull() ? null : deserializer.deserialize(jsonElement, type, context);
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        gson.toJson(value, type, out);
+    }
+}
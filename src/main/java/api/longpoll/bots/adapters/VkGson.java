@@ -0,0 +1,131 @@
+package api.longpoll.bots.adapters;
+
+import api.longpoll.bots.adapters.deserializers.GetMemberResponseBodyDeserializer;
+import api.longpoll.bots.adapters.deserializers.GetViewersResponseBodyDeserializer;
+import api.longpoll.bots.adapters.deserializers.IsMemberResponseBodyDeserializer;
+import api.longpoll.bots.adapters.deserializers.SendResponseBodyDeserializer;
+import api.longpoll.bots.adapters.deserializers.UpdateDeserializer;
+import api.longpoll.bots.adapters.deserializers.UpdateTypeAdapter;
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.methods.impl.groups.GetMembers;
+import api.longpoll.bots.methods.impl.groups.IsMember;
+import api.longpoll.bots.methods.impl.messages.Send;
+import api.longpoll.bots.methods.impl.stories.GetViewers;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.response.ErrorResponseBody;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Holds {@link Gson} shared by the whole library.
+ * <p>
+ * {@link Gson} caches type adapters per instance, so sharing one instance means reflective adapters of each class are
+ * built once per application rather than once per request. Adapters are still built lazily, on first use of a class;
+ * call {@link VkGson#warmUp()} at startup to build adapters of VK events in advance.
+ * <p>
+ * Model classes are read by streaming adapters generated at build time by {@code TypeAdapterProcessor}, which is not
+ * part of the library jar. If generated adapters are not available, e.g. when sources are compiled without annotation
+ * processing, reflective adapters are used.
+ */
+public class VkGson {
+    /**
+     * Name of generated factory of model adapters.
+     */
+    private static final String GENERATED_FACTORY = "api.longpoll.bots.adapters.GeneratedTypeAdapterFactory";
+
+    /**
+     * Shared {@link Gson} instance.
+     */
+    private static volatile Gson gson = builder().create();
+
+    /**
+     * Gets shared {@link Gson} instance.
+     *
+     * @return shared {@link Gson} instance.
+     */
+    public static Gson get() {
+        return gson;
+    }
+
+    /**
+     * Replaces shared {@link Gson} instance. Custom instance should be created by {@link VkGson#builder()}, so that
+     * library type adapters are registered.
+     *
+     * @param gson new shared {@link Gson} instance.
+     */
+    public static void set(Gson gson) {
+        VkGson.gson = gson;
+    }
+
+    /**
+     * Creates {@link GsonBuilder} with library type adapters registered.
+     *
+     * @return {@link GsonBuilder}.
+     */
+    public static GsonBuilder builder() {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        TypeAdapterFactory generatedFactory = newGeneratedFactory();
+        if (generatedFactory != null) {
+            // Registered first, as Gson prefers adapters registered later, so that hand-written adapters below win
+            gsonBuilder.registerTypeAdapterFactory(generatedFactory);
+        }
+        return gsonBuilder
+                .registerTypeAdapterFactory(new UpdateTypeAdapterFactory())
+                .registerTypeAdapter(Send.ResponseBody.class, new SendResponseBodyDeserializer())
+                .registerTypeAdapter(IsMember.ResponseBody.class, new IsMemberResponseBodyDeserializer())
+                .registerTypeAdapter(GetMembers.ResponseBody.class, new GetMemberResponseBodyDeserializer())
+                .registerTypeAdapter(GetViewers.ResponseBody.class, new GetViewersResponseBodyDeserializer());
+    }
+
+    /**
+     * Creates factory of generated model adapters.
+     *
+     * @return factory of generated model adapters or {@code null} if it is not available.
+     */
+    private static TypeAdapterFactory newGeneratedFactory() {
+        try {
+            return (TypeAdapterFactory) Class.forName(GENERATED_FACTORY).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds type adapters of Long Poll responses and all VK event objects, so the first received events are not
+     * slowed down by reflective adapter construction.
+     */
+    public static void warmUp() {
+        warmUp(GetUpdates.ResponseBody.class, ErrorResponseBody.class, Send.ResponseBody.class);
+        for (Update.Type type : Update.Type.values()) {
+            warmUp(UpdateDeserializer.getObjectClass(type));
+        }
+    }
+
+    /**
+     * Builds type adapters of provided classes.
+     *
+     * @param classes classes to build type adapters of.
+     */
+    public static void warmUp(Class<?>... classes) {
+        Gson gson = get();
+        for (Class<?> clazz : classes) {
+            gson.getAdapter(clazz);
+        }
+    }
+
+    /**
+     * Creates {@link UpdateTypeAdapter} bound to {@link Gson} instance it is requested from.
+     */
+    private static class UpdateTypeAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+            return typeToken.getRawType() == Update.class
+                    ? (TypeAdapter<T>) new UpdateTypeAdapter(gson, type -> true).nullSafe()
+                    : null;
+        }
+    }
+}
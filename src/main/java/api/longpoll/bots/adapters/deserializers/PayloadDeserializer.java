@@ -1,6 +1,6 @@
 package api.longpoll.bots.adapters.deserializers;
 
-import com.google.gson.Gson;
+import api.longpoll.bots.adapters.VkGson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
@@ -13,11 +13,6 @@ import java.lang.reflect.Type;
  * Deserializes JSON object to payload.
  */
 public class PayloadDeserializer implements JsonDeserializer<JsonElement> {
-    /**
-     * {@link Gson} object.
-     */
-    private static final Gson GSON = new Gson();
-
     @Override
     public JsonElement deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext context) throws JsonParseException {
         return jsonElement.isJsonPrimitive() && jsonElement.getAsJsonPrimitive().isString()
@@ -33,7 +28,7 @@ public class PayloadDeserializer implements JsonDeserializer<JsonElement> {
      */
     private JsonElement parseString(JsonElement jsonElement) {
         try {
-            return GSON.fromJson(jsonElement.getAsString(), JsonElement.class);
+            return VkGson.get().fromJson(jsonElement.getAsString(), JsonElement.class);
         } catch (JsonSyntaxException e) {
             return jsonElement;
         }
@@ -32,7 +32,6 @@ import api.longpoll.bots.model.objects.basic.WallPost;
 import api.longpoll.bots.model.objects.media.Audio;
 import api.longpoll.bots.model.objects.media.Photo;
 import api.longpoll.bots.model.objects.media.Video;
-import com.google.gson.Gson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
@@ -40,15 +39,26 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
 import java.lang.reflect.Type;
+import java.util.function.Predicate;
 
 /**
  * Deserializes JSON objects to {@link Update}.
+ * <p>
+ * Objects of updates rejected by filter are not deserialized: such updates keep type, group ID and event ID only.
  */
 public class UpdateDeserializer implements JsonDeserializer<Update> {
     /**
-     * {@link Gson} object.
+     * Checks whether object of update of provided type should be deserialized.
      */
-    private final Gson gson = new Gson();
+    private final Predicate<Update.Type> filter;
+
+    public UpdateDeserializer() {
+        this(type -> true);
+    }
+
+    public UpdateDeserializer(Predicate<Update.Type> filter) {
+        this.filter = filter;
+    }
 
     @Override
     public final Update deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext context) throws JsonParseException {
@@ -58,16 +68,24 @@ public class UpdateDeserializer implements JsonDeserializer<Update> {
         update.setType(context.deserialize(jsonUpdate.get("type"), Update.Type.class));
 
         if (update.getType() == null) {
-            throw new IllegalArgumentException("There is no mapping for event '" + jsonUpdate.get("type") + "'. JSON: " + gson.toJson(jsonElement));
+            throw new IllegalArgumentException("There is no mapping for event '" + jsonUpdate.get("type") + "'. JSON: " + jsonElement);
         }
 
         update.setGroupId(jsonUpdate.get("group_id").getAsInt());
         update.setEventId(jsonUpdate.get("event_id").getAsString());
-        update.setObject(context.deserialize(jsonUpdate.get("object"), getObjectClass(update.getType())));
+        if (filter.test(update.getType())) {
+            update.setObject(context.deserialize(jsonUpdate.get("object"), getObjectClass(update.getType())));
+        }
         return update;
     }
 
-    private Class<? extends Update.Object> getObjectClass(Update.Type type) {
+    /**
+     * Gets class of update object by update type.
+     *
+     * @param type update type.
+     * @return class of update object.
+     */
+    public static Class<? extends Update.Object> getObjectClass(Update.Type type) {
         switch (type) {
             case APP_PAYLOAD:
                 return AppPayload.class;
@@ -0,0 +1,144 @@
+package api.longpoll.bots.adapters.deserializers;
+
+import api.longpoll.bots.model.events.Update;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Reads {@link Update} from JSON stream in a single pass.
+ * <p>
+ * Unlike {@link UpdateDeserializer}, no intermediate JSON tree is built: update object is read by the adapter of its
+ * class right from the stream, and objects of updates rejected by filter are skipped without being parsed. A tree is
+ * built only if {@code object} precedes {@code type} in JSON.
+ */
+public class UpdateTypeAdapter extends TypeAdapter<Update> {
+    /**
+     * Update types by their names.
+     */
+    private static final Map<String, Update.Type> TYPES = new HashMap<>();
+
+    /**
+     * Update type names indexed by {@link Update.Type#ordinal()}.
+     */
+    private static final String[] NAMES = new String[Update.Type.values().length];
+
+    static {
+        for (Update.Type type : Update.Type.values()) {
+            try {
+                NAMES[type.ordinal()] = Update.Type.class.getField(type.name()).getAnnotation(SerializedName.class).value();
+                TYPES.put(NAMES[type.ordinal()], type);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Checks whether object of update of provided type should be deserialized.
+     */
+    private final Predicate<Update.Type> filter;
+
+    /**
+     * Adapters of update objects indexed by {@link Update.Type#ordinal()}.
+     */
+    private final TypeAdapter<?>[] objectAdapters = new TypeAdapter<?>[Update.Type.values().length];
+
+    public UpdateTypeAdapter(Gson gson, Predicate<Update.Type> filter) {
+        this.filter = filter;
+        for (Update.Type type : Update.Type.values()) {
+            objectAdapters[type.ordinal()] = gson.getAdapter(UpdateDeserializer.getObjectClass(type));
+        }
+    }
+
+    @Override
+    public Update read(JsonReader in) throws IOException {
+        Update update = new Update();
+        JsonElement jsonObject = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    String name = in.nextString();
+                    update.setType(TYPES.get(name));
+                    if (update.getType() == null) {
+                        throw new JsonParseException("There is no mapping for event '" + name + "'.");
+                    }
+                    break;
+
+                case "group_id":
+                    update.setGroupId(in.nextInt());
+                    break;
+
+                case "event_id":
+                    update.setEventId(in.nextString());
+                    break;
+
+                case "object":
+                    if (update.getType() != null) {
+                        update.setObject(readObject(update.getType(), in));
+                    } else {
+                        jsonObject = JsonParser.parseReader(in);
+                    }
+                    break;
+
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (update.getType() == null) {
+            throw new JsonParseException("Event type is missing.");
+        }
+        if (jsonObject != null && filter.test(update.getType())) {
+            update.setObject((Update.Object) objectAdapters[update.getType().ordinal()].fromJsonTree(jsonObject));
+        }
+        return update;
+    }
+
+    /**
+     * Reads update object or skips it if update type is rejected by filter.
+     *
+     * @param type update type.
+     * @param in   JSON stream.
+     * @return update object or {@code null} if update type is rejected by filter.
+     * @throws IOException if errors occur.
+     */
+    private Update.Object readObject(Update.Type type, JsonReader in) throws IOException {
+        if (filter.test(type)) {
+            return (Update.Object) objectAdapters[type.ordinal()].read(in);
+        }
+        in.skipValue();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(JsonWriter out, Update update) throws IOException {
+        if (update == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (update.getType() != null) {
+            out.name("type").value(NAMES[update.getType().ordinal()]);
+            out.name("object");
+            ((TypeAdapter<Update.Object>) objectAdapters[update.getType().ordinal()]).write(out, update.getObject());
+        }
+        out.name("group_id").value(update.getGroupId());
+        out.name("event_id").value(update.getEventId());
+        out.endObject();
+    }
+}
@@ -0,0 +1,110 @@
+package api.longpoll.bots.checkpoint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches checkpoints of another {@link TsStore}.
+ * <p>
+ * {@link AsyncTsStore#save(int)} only remembers {@code ts}, while the latest remembered value is written to underlying
+ * store periodically on a background thread and on {@link AsyncTsStore#flush()}. If the process crashes, polling is
+ * resumed from a slightly older {@code ts}, i.e. some updates may be handled twice, but none is lost.
+ */
+public class AsyncTsStore implements TsStore, AutoCloseable {
+    /**
+     * {@link Logger} instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTsStore.class);
+
+    /**
+     * Underlying store.
+     */
+    private final TsStore tsStore;
+
+    /**
+     * Writes checkpoints periodically.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AsyncTsStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Keeps checkpoints written in order.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * The latest {@code ts} which is not written to underlying store yet, or {@code null}.
+     */
+    private Integer pendingTs;
+
+    public AsyncTsStore(TsStore tsStore, Duration interval) {
+        this.tsStore = tsStore;
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized Integer load() throws IOException {
+        return pendingTs != null ? pendingTs : tsStore.load();
+    }
+
+    @Override
+    public synchronized void save(int ts) {
+        pendingTs = ts;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            Integer ts;
+            synchronized (this) {
+                ts = pendingTs;
+                pendingTs = null;
+            }
+            if (ts == null) {
+                return;
+            }
+            try {
+                tsStore.save(ts);
+            } catch (IOException e) {
+                synchronized (this) {
+                    if (pendingTs == null) {
+                        pendingTs = ts;
+                    }
+                }
+                throw e;
+            }
+            tsStore.flush();
+        }
+    }
+
+    /**
+     * Flushes pending checkpoint, logging errors.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to save ts checkpoint.", e);
+        }
+    }
+
+    /**
+     * Stops background writes and flushes pending checkpoint.
+     *
+     * @throws IOException if errors occur.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        flush();
+    }
+}
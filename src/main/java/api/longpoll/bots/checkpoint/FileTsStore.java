@@ -0,0 +1,90 @@
+package api.longpoll.bots.checkpoint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps {@code ts} in a file.
+ * <p>
+ * Each checkpoint is written to a temporary file, synced to disk and then atomically moved over the previous one, so
+ * the file always contains a complete checkpoint even if the process crashes while saving. The directory is synced
+ * after the move as well, so the new checkpoint survives a power loss. Wrap this store into
+ * {@link AsyncTsStore} to avoid a disk write per batch of updates.
+ */
+public class FileTsStore implements TsStore {
+    /**
+     * {@link Logger} instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileTsStore.class);
+
+    /**
+     * File to keep {@code ts} in.
+     */
+    private final Path path;
+
+    /**
+     * Temporary file to write new checkpoint to.
+     */
+    private final Path tempPath;
+
+    public FileTsStore(Path path) {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    @Override
+    public Integer load() throws IOException {
+        try {
+            String ts = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim();
+            return ts.isEmpty() ? null : Integer.valueOf(ts);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checkpoint in " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(int ts) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                tempPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            ByteBuffer buffer = ByteBuffer.wrap(String.valueOf(ts).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    /**
+     * Syncs the directory of the file to disk, so that the move is durable. Skipped on platforms which cannot open
+     * directories, e.g. Windows.
+     */
+    private void syncDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to sync directory {}.", directory, e);
+        }
+    }
+}
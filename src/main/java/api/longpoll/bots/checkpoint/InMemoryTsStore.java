@@ -0,0 +1,21 @@
+package api.longpoll.bots.checkpoint;
+
+/**
+ * Keeps {@code ts} in memory. Polling may be resumed by the same process only.
+ */
+public class InMemoryTsStore implements TsStore {
+    /**
+     * Saved {@code ts}.
+     */
+    private volatile Integer ts;
+
+    @Override
+    public Integer load() {
+        return ts;
+    }
+
+    @Override
+    public void save(int ts) {
+        this.ts = ts;
+    }
+}
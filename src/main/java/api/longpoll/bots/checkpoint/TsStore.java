@@ -0,0 +1,32 @@
+package api.longpoll.bots.checkpoint;
+
+import java.io.IOException;
+
+/**
+ * Stores {@code ts} of the last handled batch of updates, so that polling may be resumed from it after restart.
+ */
+public interface TsStore {
+    /**
+     * Loads saved {@code ts}.
+     *
+     * @return saved {@code ts} or {@code null} if nothing is saved.
+     * @throws IOException if errors occur.
+     */
+    Integer load() throws IOException;
+
+    /**
+     * Saves {@code ts}. Values are saved in ascending order.
+     *
+     * @param ts {@code ts} to continue polling with.
+     * @throws IOException if errors occur.
+     */
+    void save(int ts) throws IOException;
+
+    /**
+     * Writes pending checkpoint, if any, to underlying storage.
+     *
+     * @throws IOException if errors occur.
+     */
+    default void flush() throws IOException {
+    }
+}
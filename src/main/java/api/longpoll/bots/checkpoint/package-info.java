@@ -0,0 +1,4 @@
+/**
+ * Checkpoints of Long Poll {@code ts}.
+ */
+package api.longpoll.bots.checkpoint;
@@ -0,0 +1,256 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.utils.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Handles VK updates concurrently.
+ * <p>
+ * Updates are routed by key onto a {@link KeyedExecutor}, so updates with equal keys are handled sequentially in the
+ * order they were dispatched, while updates with different keys may be handled in parallel. The number of updates which
+ * are dispatched but not handled yet is bounded: when the limit is reached,
+ * {@link ConcurrentUpdateDispatcher#dispatch(List)} blocks until handlers catch up.
+ */
+public class ConcurrentUpdateDispatcher implements UpdateDispatcher {
+    /**
+     * {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentUpdateDispatcher.class);
+
+    /**
+     * Number of serial queues per worker thread.
+     */
+    private static final int STRIPES_PER_THREAD = 64;
+
+    /**
+     * Number of serial queues of dispatcher running each handler on its own virtual thread.
+     */
+    private static final int VIRTUAL_THREAD_STRIPES = 4096;
+
+    /**
+     * Handles single update.
+     */
+    private final Consumer<Update> handler;
+
+    /**
+     * Gets ordering key of update.
+     */
+    private final Function<Update, ?> keyExtractor;
+
+    /**
+     * Runs handlers in order of keys.
+     */
+    private final KeyedExecutor keyedExecutor;
+
+    /**
+     * Permits to dispatch updates.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Worker threads owned by this dispatcher or {@code null} if backing executor is provided by caller.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Checks whether updates of provided type are consumed by handler.
+     */
+    private Predicate<Update.Type> updateFilter = type -> true;
+
+    /**
+     * Creates dispatcher running each handler on its own virtual thread, so blocking handlers need no pool tuning.
+     * Updates are ordered by {@link UpdateKeyExtractor}. On JVMs without virtual threads, falls back to a pool of
+     * platform threads, one per available processor.
+     *
+     * @param handler    handles single update.
+     * @param maxPending max number of dispatched but not handled updates.
+     */
+    public ConcurrentUpdateDispatcher(Consumer<Update> handler, int maxPending) {
+        this(
+                handler,
+                VirtualThreads.newExecutorOrElse(() -> newWorkers(Runtime.getRuntime().availableProcessors())),
+                VIRTUAL_THREAD_STRIPES,
+                maxPending,
+                new UpdateKeyExtractor(),
+                true
+        );
+    }
+
+    /**
+     * Creates dispatcher with its own worker threads. Updates are ordered by {@link UpdateKeyExtractor}.
+     *
+     * @param handler       handles single update.
+     * @param parallelism   number of worker threads.
+     * @param queueCapacity max number of pending updates per worker thread.
+     */
+    public ConcurrentUpdateDispatcher(Consumer<Update> handler, int parallelism, int queueCapacity) {
+        this(handler, parallelism, queueCapacity, new UpdateKeyExtractor());
+    }
+
+    /**
+     * Creates dispatcher with its own worker threads.
+     *
+     * @param handler       handles single update.
+     * @param parallelism   number of worker threads.
+     * @param queueCapacity max number of pending updates per worker thread.
+     * @param keyExtractor  gets ordering key of update.
+     */
+    public ConcurrentUpdateDispatcher(Consumer<Update> handler, int parallelism, int queueCapacity, Function<Update, ?> keyExtractor) {
+        this(handler, newWorkers(parallelism), parallelism * STRIPES_PER_THREAD, parallelism * queueCapacity, keyExtractor, true);
+    }
+
+    /**
+     * Creates dispatcher running handlers on provided executor.
+     *
+     * @param handler      handles single update.
+     * @param executor     executor to run handlers on.
+     * @param stripes      number of serial queues.
+     * @param maxPending   max number of dispatched but not handled updates.
+     * @param keyExtractor gets ordering key of update.
+     */
+    public ConcurrentUpdateDispatcher(Consumer<Update> handler, Executor executor, int stripes, int maxPending, Function<Update, ?> keyExtractor) {
+        this(handler, executor, stripes, maxPending, keyExtractor, false);
+    }
+
+    private ConcurrentUpdateDispatcher(Consumer<Update> handler, Executor executor, int stripes, int maxPending, Function<Update, ?> keyExtractor, boolean ownsExecutor) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be positive: " + maxPending);
+        }
+        this.handler = handler;
+        this.keyExtractor = keyExtractor;
+        this.keyedExecutor = new KeyedExecutor(executor, stripes);
+        this.permits = new Semaphore(maxPending);
+        this.workers = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    @Override
+    public CompletableFuture<Void> dispatch(List<Update> updates) {
+        Batch batch = new Batch(updates.size());
+        try {
+            for (Update update : updates) {
+                permits.acquire();
+                try {
+                    keyedExecutor.execute(keyExtractor.apply(update), () -> handle(update, batch));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    batch.future.completeExceptionally(e);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.future.completeExceptionally(e);
+        }
+        return batch.future;
+    }
+
+    @Override
+    public boolean accepts(Update.Type type) {
+        return updateFilter.test(type);
+    }
+
+    /**
+     * Sets filter of update types consumed by handler. By default, all update types are consumed.
+     * For example, if handler is {@link api.longpoll.bots.VkBot#handle(Update)}, only update types having listeners
+     * need to be deserialized:
+     * <pre>{@code
+     * dispatcher.setUpdateFilter(getListenerRegistry()::hasListeners);
+     * }</pre>
+     *
+     * @param updateFilter checks whether updates of provided type are consumed by handler.
+     * @return current instance.
+     */
+    public ConcurrentUpdateDispatcher setUpdateFilter(Predicate<Update.Type> updateFilter) {
+        this.updateFilter = updateFilter;
+        return this;
+    }
+
+    /**
+     * Stops worker threads owned by this dispatcher once they handle already dispatched updates.
+     */
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Handles update and releases its permit.
+     *
+     * @param update VK update.
+     * @param batch  batch the update belongs to.
+     */
+    private void handle(Update update, Batch batch) {
+        try {
+            handler.accept(update);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to handle update: {}", update, e);
+        } finally {
+            permits.release();
+            batch.countDown();
+        }
+    }
+
+    /**
+     * Creates fixed pool of daemon worker threads.
+     *
+     * @param parallelism number of threads.
+     * @return pool of worker threads.
+     */
+    private static ExecutorService newWorkers(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "update-dispatcher-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Tracks handling of batch of updates.
+     */
+    private static class Batch {
+        /**
+         * Completed when all updates are handled.
+         */
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * Number of updates which are not handled yet.
+         */
+        private final AtomicInteger remaining;
+
+        private Batch(int size) {
+            this.remaining = new AtomicInteger(size);
+            if (size == 0) {
+                future.complete(null);
+            }
+        }
+
+        /**
+         * Marks one update of the batch as handled.
+         */
+        private void countDown() {
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(null);
+            }
+        }
+    }
+}
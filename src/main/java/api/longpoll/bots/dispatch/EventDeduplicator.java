@@ -0,0 +1,266 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Drops updates whose {@code event_id} was recently seen, e.g. updates received again after resuming from an older
+ * {@code ts}.
+ * <p>
+ * Memory is bounded: at most {@code capacity} recent events are remembered, and events older than {@code window} are
+ * forgotten. Instead of strings, 64-bit fingerprints of {@code event_id} are kept in primitive arrays, i.e. about 40
+ * bytes per remembered event. Distinct events are mistaken for duplicates with probability of about
+ * {@code capacity / 2^64} per event.
+ */
+public class EventDeduplicator {
+    /**
+     * Marks free slot of {@link EventDeduplicator#table}.
+     */
+    private static final long FREE = 0;
+
+    /**
+     * Fingerprints of remembered events in order of arrival.
+     */
+    private final long[] fingerprints;
+
+    /**
+     * Arrival times of remembered events (in nanoseconds).
+     */
+    private final long[] arrivals;
+
+    /**
+     * Open addressing hash set of remembered fingerprints.
+     */
+    private final long[] table;
+
+    /**
+     * Time to remember events for (in nanoseconds).
+     */
+    private final long window;
+
+    /**
+     * Supplies current time (in nanoseconds).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Index of the oldest remembered event in {@link EventDeduplicator#fingerprints}.
+     */
+    private int head;
+
+    /**
+     * Number of remembered events.
+     */
+    private int size;
+
+    /**
+     * Number of checked events.
+     */
+    private long checks;
+
+    /**
+     * Number of detected duplicates.
+     */
+    private long duplicates;
+
+    /**
+     * Creates deduplicator remembering up to {@code capacity} events for {@code window}.
+     *
+     * @param capacity max number of remembered events.
+     * @param window   time to remember events for.
+     */
+    public EventDeduplicator(int capacity, Duration window) {
+        this(capacity, window, System::nanoTime);
+    }
+
+    EventDeduplicator(int capacity, Duration window, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.fingerprints = new long[capacity];
+        this.arrivals = new long[capacity];
+        this.table = new long[Integer.highestOneBit(capacity) << 2];
+        this.window = window.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Removes duplicates from batch of updates. Updates without {@code event_id} are kept.
+     *
+     * @param updates batch of updates.
+     * @return updates which were not seen before.
+     */
+    public List<Update> filter(List<Update> updates) {
+        List<Update> unique = new ArrayList<>(updates.size());
+        for (Update update : updates) {
+            if (update.getEventId() == null || !isDuplicate(update.getEventId())) {
+                unique.add(update);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Checks whether event was recently seen and remembers it.
+     *
+     * @param eventId {@code event_id} value.
+     * @return {@code true} if event was recently seen.
+     */
+    public synchronized boolean isDuplicate(String eventId) {
+        long now = clock.getAsLong();
+        expire(now);
+        checks++;
+
+        long fingerprint = fingerprint(eventId);
+        int mask = table.length - 1;
+        int slot = slot(fingerprint, mask);
+        while (table[slot] != FREE) {
+            if (table[slot] == fingerprint) {
+                duplicates++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == fingerprints.length) {
+            evictOldest();
+            slot = slot(fingerprint, mask);
+            while (table[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        table[slot] = fingerprint;
+        int tail = (head + size) % fingerprints.length;
+        fingerprints[tail] = fingerprint;
+        arrivals[tail] = now;
+        size++;
+        return false;
+    }
+
+    /**
+     * Gets number of checked events.
+     *
+     * @return number of checked events.
+     */
+    public synchronized long getChecks() {
+        return checks;
+    }
+
+    /**
+     * Gets number of detected duplicates.
+     *
+     * @return number of detected duplicates.
+     */
+    public synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Gets share of checked events which were duplicates.
+     *
+     * @return hit rate from 0 to 1.
+     */
+    public synchronized double getHitRate() {
+        return checks == 0 ? 0 : (double) duplicates / checks;
+    }
+
+    /**
+     * Gets number of remembered events.
+     *
+     * @return number of remembered events.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets memory allocated for remembered events.
+     *
+     * @return memory size (in bytes).
+     */
+    public long getMemoryUsage() {
+        return (long) Long.BYTES * (fingerprints.length + arrivals.length + table.length);
+    }
+
+    /**
+     * Forgets events older than {@link EventDeduplicator#window}.
+     *
+     * @param now current time (in nanoseconds).
+     */
+    private void expire(long now) {
+        while (size > 0 && now - arrivals[head] > window) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Forgets the oldest remembered event.
+     */
+    private void evictOldest() {
+        remove(fingerprints[head]);
+        head = (head + 1) % fingerprints.length;
+        size--;
+    }
+
+    /**
+     * Removes fingerprint from {@link EventDeduplicator#table}, shifting back the following entries of its cluster.
+     *
+     * @param fingerprint fingerprint to remove.
+     */
+    private void remove(long fingerprint) {
+        int mask = table.length - 1;
+        int slot = slot(fingerprint, mask);
+        while (table[slot] != fingerprint) {
+            if (table[slot] == FREE) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int free = slot;
+        for (int next = (free + 1) & mask; table[next] != FREE; next = (next + 1) & mask) {
+            int home = slot(table[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+        }
+        table[free] = FREE;
+    }
+
+    /**
+     * Gets home slot of fingerprint.
+     *
+     * @param fingerprint fingerprint.
+     * @param mask        table size minus one.
+     * @return home slot.
+     */
+    private static int slot(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * Computes 64-bit fingerprint of {@code event_id}: FNV-1a hash of UTF-8 bytes followed by a final mix.
+     *
+     * @param eventId {@code event_id} value.
+     * @return non-zero fingerprint.
+     */
+    static long fingerprint(String eventId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : eventId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == FREE ? 1 : hash;
+    }
+}
@@ -0,0 +1,166 @@
+package api.longpoll.bots.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks with equal keys sequentially and tasks with different keys concurrently.
+ * <p>
+ * Keys are hashed onto a fixed number of stripes. Each stripe is a lock-free serial queue which is drained by at most
+ * one task of the backing {@link Executor} at a time. Memory usage depends on the number of stripes and pending tasks
+ * only, not on the number of distinct keys. Different keys which share a stripe are serialized as well, so the number of
+ * stripes should be well above the number of backing threads.
+ */
+public class KeyedExecutor {
+    /**
+     * {@link Logger} object.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyedExecutor.class);
+
+    /**
+     * Max number of tasks a stripe runs before yielding its thread to other stripes.
+     */
+    private static final int MAX_TASKS_PER_DRAIN = 64;
+
+    /**
+     * Serial queues.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Backing executor.
+     */
+    private final Executor executor;
+
+    /**
+     * Creates {@link KeyedExecutor}.
+     *
+     * @param executor backing executor.
+     * @param stripes  number of serial queues. Rounded up to the nearest power of two.
+     */
+    public KeyedExecutor(Executor executor, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.executor = executor;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Schedules task. The task runs after all previously scheduled tasks with the same key.
+     *
+     * @param key  ordering key. {@code null} is a valid key.
+     * @param task task to run.
+     */
+    public void execute(Object key, Runnable task) {
+        int hash = key != null ? key.hashCode() : 0;
+        stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)].execute(task);
+    }
+
+    /**
+     * Serial queue of tasks.
+     */
+    private class Stripe implements Runnable {
+        /**
+         * Pending tasks.
+         */
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Whether drain of this stripe is scheduled or running.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Adds task to queue and schedules drain if it is not scheduled yet.
+         * If backing executor rejects the drain, the task is removed from queue, so it never runs.
+         *
+         * @param task task to run.
+         * @throws RejectedExecutionException if backing executor rejects the drain.
+         */
+        private void execute(Runnable task) {
+            tasks.add(task);
+            try {
+                schedule();
+            } catch (RejectedExecutionException e) {
+                if (tasks.remove(task)) {
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Schedules drain if there are pending tasks and drain is not scheduled yet.
+         */
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Runs up to {@value KeyedExecutor#MAX_TASKS_PER_DRAIN} tasks, then hands the rest of the queue over to a new
+         * drain. If backing executor rejects it, e.g. being shut down, the rest of the queue is run on this thread, so
+         * already scheduled tasks are never lost.
+         */
+        @Override
+        public void run() {
+            try {
+                while (drain()) {
+                    try {
+                        executor.execute(this);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        LOGGER.debug("Drain is rejected, draining on the current thread.");
+                    }
+                }
+            } catch (Error e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+
+        /**
+         * Runs up to {@value KeyedExecutor#MAX_TASKS_PER_DRAIN} tasks.
+         *
+         * @return {@code true} if tasks remain and this drain still owns the stripe, {@code false} if the stripe is
+         * released.
+         */
+        private boolean drain() {
+            for (int i = 0; i < MAX_TASKS_PER_DRAIN; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Task failed.", e);
+                }
+            }
+            if (!tasks.isEmpty()) {
+                return true;
+            }
+            scheduled.set(false);
+            return !tasks.isEmpty() && scheduled.compareAndSet(false, true);
+        }
+    }
+}
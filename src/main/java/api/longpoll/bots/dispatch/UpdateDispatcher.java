@@ -0,0 +1,37 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hands VK updates over to handlers.
+ */
+public interface UpdateDispatcher {
+    /**
+     * Dispatches batch of VK updates.
+     *
+     * @param updates batch of VK updates.
+     * @return future which is completed when all updates of the batch are handled.
+     */
+    CompletableFuture<Void> dispatch(List<Update> updates);
+
+    /**
+     * Checks whether updates of provided type are consumed by handlers.
+     * Objects of updates which are not consumed are not deserialized: such updates are still dispatched, but
+     * {@link Update#getObject()} returns {@code null}.
+     *
+     * @param type update type.
+     * @return {@code true} if updates of provided type are consumed by handlers.
+     */
+    default boolean accepts(Update.Type type) {
+        return true;
+    }
+
+    /**
+     * Releases resources held by dispatcher.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,197 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.boards.BoardPost;
+import api.longpoll.bots.model.events.boards.BoardPostDelete;
+import api.longpoll.bots.model.events.likes.Like;
+import api.longpoll.bots.model.events.market.MarketComment;
+import api.longpoll.bots.model.events.market.MarketCommentDelete;
+import api.longpoll.bots.model.events.messages.MessageAllow;
+import api.longpoll.bots.model.events.messages.MessageDeny;
+import api.longpoll.bots.model.events.messages.MessageEvent;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import api.longpoll.bots.model.events.messages.MessageTypingState;
+import api.longpoll.bots.model.events.other.AppPayload;
+import api.longpoll.bots.model.events.other.VkpayTransaction;
+import api.longpoll.bots.model.events.photos.PhotoComment;
+import api.longpoll.bots.model.events.photos.PhotoCommentDelete;
+import api.longpoll.bots.model.events.poll.PollVoteNew;
+import api.longpoll.bots.model.events.users.GroupJoin;
+import api.longpoll.bots.model.events.users.GroupLeave;
+import api.longpoll.bots.model.events.users.UserBlock;
+import api.longpoll.bots.model.events.users.UserUnblock;
+import api.longpoll.bots.model.events.video.VideoComment;
+import api.longpoll.bots.model.events.video.VideoCommentDelete;
+import api.longpoll.bots.model.events.wall.comments.WallReply;
+import api.longpoll.bots.model.events.wall.comments.WallReplyDelete;
+import api.longpoll.bots.model.objects.basic.MarketOrder;
+import api.longpoll.bots.model.objects.basic.Message;
+import api.longpoll.bots.model.objects.basic.WallPost;
+import api.longpoll.bots.model.objects.media.Audio;
+import api.longpoll.bots.model.objects.media.Photo;
+import api.longpoll.bots.model.objects.media.Video;
+
+import java.util.function.Function;
+
+/**
+ * Gets ordering key of {@link Update}, i.e. identifier of the conversation or object thread the update belongs to.
+ * <ul>
+ *     <li>message events are keyed by {@code peer_id} (or user ID for events without {@code peer_id});</li>
+ *     <li>comment and like events are keyed by the commented or liked object (owner ID and object ID);</li>
+ *     <li>user events are keyed by user ID;</li>
+ *     <li>other events are keyed by {@code group_id}.</li>
+ * </ul>
+ * Updates with equal keys must be handled in order, e.g. <b>message_edit</b> after <b>message_new</b> of the same chat.
+ */
+public class UpdateKeyExtractor implements Function<Update, Object> {
+    @Override
+    public Object apply(Update update) {
+        Object key = update.getObject() != null ? getKey(update.getType(), update.getObject()) : null;
+        return key != null ? key : update.getGroupId();
+    }
+
+    /**
+     * Gets ordering key of update object.
+     *
+     * @param type   update type.
+     * @param object update object.
+     * @return ordering key or {@code null} if update object has no specific key.
+     */
+    private Object getKey(Update.Type type, Update.Object object) {
+        switch (type) {
+            case MESSAGE_NEW:
+                Message message = ((MessageNew) object).getMessage();
+                return message != null ? message.getPeerId() : null;
+
+            case MESSAGE_REPLY:
+            case MESSAGE_EDIT:
+                return ((Message) object).getPeerId();
+
+            case MESSAGE_EVENT:
+                return ((MessageEvent) object).getPeerId();
+
+            case MESSAGE_TYPING_STATE:
+                return ((MessageTypingState) object).getFromId();
+
+            case MESSAGE_ALLOW:
+                return ((MessageAllow) object).getUserId();
+
+            case MESSAGE_DENY:
+                return ((MessageDeny) object).getUserId();
+
+            case WALL_REPLY_NEW:
+            case WALL_REPLY_EDIT:
+            case WALL_REPLY_RESTORE:
+                WallReply wallReply = (WallReply) object;
+                return compose(wallReply.getPostOwnerId(), wallReply.getPostId());
+
+            case WALL_REPLY_DELETE:
+                WallReplyDelete wallReplyDelete = (WallReplyDelete) object;
+                return compose(wallReplyDelete.getOwnerId(), wallReplyDelete.getPostId());
+
+            case WALL_POST_NEW:
+            case WALL_REPOST:
+                WallPost wallPost = (WallPost) object;
+                return compose(wallPost.getOwnerId(), wallPost.getId());
+
+            case PHOTO_NEW:
+                Photo photo = (Photo) object;
+                return compose(photo.getOwnerId(), photo.getId());
+
+            case PHOTO_COMMENT_NEW:
+            case PHOTO_COMMENT_EDIT:
+            case PHOTO_COMMENT_RESTORE:
+                PhotoComment photoComment = (PhotoComment) object;
+                return compose(photoComment.getPhotoOwnerId(), photoComment.getPhotoId());
+
+            case PHOTO_COMMENT_DELETE:
+                PhotoCommentDelete photoCommentDelete = (PhotoCommentDelete) object;
+                return compose(photoCommentDelete.getOwnerId(), photoCommentDelete.getPhotoId());
+
+            case AUDIO_NEW:
+                Audio audio = (Audio) object;
+                return compose(audio.getOwnerId(), audio.getId());
+
+            case VIDEO_NEW:
+                Video video = (Video) object;
+                return compose(video.getOwnerId(), video.getId());
+
+            case VIDEO_COMMENT_NEW:
+            case VIDEO_COMMENT_EDIT:
+            case VIDEO_COMMENT_RESTORE:
+                VideoComment videoComment = (VideoComment) object;
+                return compose(videoComment.getVideoOwnerId(), videoComment.getVideoId());
+
+            case VIDEO_COMMENT_DELETE:
+                VideoCommentDelete videoCommentDelete = (VideoCommentDelete) object;
+                return compose(videoCommentDelete.getOwnerId(), videoCommentDelete.getVideoId());
+
+            case BOARD_POST_NEW:
+            case BOARD_POST_EDIT:
+            case BOARD_POST_RESTORE:
+                BoardPost boardPost = (BoardPost) object;
+                return compose(boardPost.getTopicOwnerId(), boardPost.getTopicId());
+
+            case BOARD_POST_DELETE:
+                BoardPostDelete boardPostDelete = (BoardPostDelete) object;
+                return compose(boardPostDelete.getTopicOwnerId(), boardPostDelete.getTopicId());
+
+            case MARKET_COMMENT_NEW:
+            case MARKET_COMMENT_EDIT:
+            case MARKET_COMMENT_RESTORE:
+                MarketComment marketComment = (MarketComment) object;
+                return compose(marketComment.getMarketOwnerId(), marketComment.getItemId());
+
+            case MARKET_COMMENT_DELETE:
+                MarketCommentDelete marketCommentDelete = (MarketCommentDelete) object;
+                return compose(marketCommentDelete.getOwnerId(), marketCommentDelete.getItemId());
+
+            case MARKET_ORDER_NEW:
+            case MARKET_ORDER_EDIT:
+                return ((MarketOrder) object).getUserId();
+
+            case LIKE_ADD:
+            case LIKE_REMOVE:
+                Like like = (Like) object;
+                return compose(like.getObjectOwnerId(), like.getObjectId());
+
+            case GROUP_JOIN:
+                return ((GroupJoin) object).getUserId();
+
+            case GROUP_LEAVE:
+                return ((GroupLeave) object).getUserId();
+
+            case USER_BLOCK:
+                return ((UserBlock) object).getUserId();
+
+            case USER_UNBLOCK:
+                return ((UserUnblock) object).getUserId();
+
+            case APP_PAYLOAD:
+                return ((AppPayload) object).getUserId();
+
+            case VKPAY_TRANSACTION:
+                return ((VkpayTransaction) object).getFromId();
+
+            case POLL_VOTE_NEW:
+                PollVoteNew pollVoteNew = (PollVoteNew) object;
+                return compose(pollVoteNew.getOwnerId(), pollVoteNew.getPollId());
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Combines owner ID and object ID into a single key.
+     *
+     * @param ownerId  owner ID.
+     * @param objectId object ID.
+     * @return combined key or {@code null} if any ID is missing.
+     */
+    private static Long compose(Integer ownerId, Integer objectId) {
+        return ownerId != null && objectId != null
+                ? (long) ownerId << Integer.SIZE | (objectId & 0xFFFFFFFFL)
+                : null;
+    }
+}
@@ -0,0 +1,18 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+
+/**
+ * Listens to VK updates of a certain type.
+ *
+ * @param <T> update object type.
+ */
+@FunctionalInterface
+public interface UpdateListener<T extends Update.Object> {
+    /**
+     * Handles update object.
+     *
+     * @param object update object.
+     */
+    void onUpdate(T object);
+}
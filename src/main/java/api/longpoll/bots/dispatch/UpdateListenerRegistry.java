@@ -0,0 +1,94 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.adapters.deserializers.UpdateDeserializer;
+import api.longpoll.bots.model.events.Update;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Registry of {@link UpdateListener}s keyed by {@link Update.Type}.
+ * <p>
+ * Listeners are kept in a table indexed by update type, so handling an update is a single array lookup. Registration
+ * replaces the table (copy-on-write), hence listeners are expected to be registered once at startup, while handling is
+ * lock-free and may run on any number of threads.
+ */
+public class UpdateListenerRegistry {
+    /**
+     * Empty list of listeners.
+     */
+    private static final UpdateListener<?>[] NO_LISTENERS = new UpdateListener<?>[0];
+
+    /**
+     * Listeners indexed by {@link Update.Type#ordinal()}.
+     */
+    private volatile UpdateListener<?>[][] table;
+
+    public UpdateListenerRegistry() {
+        UpdateListener<?>[][] table = new UpdateListener<?>[Update.Type.values().length][];
+        Arrays.fill(table, NO_LISTENERS);
+        this.table = table;
+    }
+
+    /**
+     * Registers listener of updates of provided type.
+     *
+     * @param type        update type.
+     * @param objectClass class of update object.
+     * @param listener    update listener.
+     * @param <T>         update object type.
+     * @return current instance.
+     * @throws IllegalArgumentException if objects of provided update type are not instances of {@code objectClass}.
+     */
+    public synchronized <T extends Update.Object> UpdateListenerRegistry register(Update.Type type, Class<T> objectClass, UpdateListener<? super T> listener) {
+        Class<? extends Update.Object> actualClass = UpdateDeserializer.getObjectClass(type);
+        if (!objectClass.isAssignableFrom(actualClass)) {
+            throw new IllegalArgumentException("Objects of '" + type + "' updates are instances of " + actualClass.getName() + ", not " + objectClass.getName());
+        }
+
+        UpdateListener<?>[][] table = this.table.clone();
+        UpdateListener<?>[] listeners = Arrays.copyOf(table[type.ordinal()], table[type.ordinal()].length + 1);
+        listeners[listeners.length - 1] = listener;
+        table[type.ordinal()] = listeners;
+        this.table = table;
+        return this;
+    }
+
+    /**
+     * Passes update object to all listeners of update type. Updates without listeners are skipped.
+     *
+     * @param update VK update.
+     */
+    @SuppressWarnings("unchecked")
+    public void handle(Update update) {
+        for (UpdateListener<?> listener : table[update.getType().ordinal()]) {
+            ((UpdateListener<Update.Object>) listener).onUpdate(update.getObject());
+        }
+    }
+
+    /**
+     * Checks whether there are listeners of provided update type.
+     *
+     * @param type update type.
+     * @return {@code true} if there is at least one listener of provided update type.
+     */
+    public boolean hasListeners(Update.Type type) {
+        return table[type.ordinal()].length > 0;
+    }
+
+    /**
+     * Gets update types which have at least one listener.
+     *
+     * @return update types which have at least one listener.
+     */
+    public Set<Update.Type> getConsumedTypes() {
+        Set<Update.Type> consumedTypes = EnumSet.noneOf(Update.Type.class);
+        for (Update.Type type : Update.Type.values()) {
+            if (hasListeners(type)) {
+                consumedTypes.add(type);
+            }
+        }
+        return consumedTypes;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Dispatchers of VK updates to bot handlers.
+ */
+package api.longpoll.bots.dispatch;
@@ -0,0 +1,25 @@
+package api.longpoll.bots.exceptions;
+
+/**
+ * Occurs when VK responds with non-2xx HTTP status.
+ */
+public class VkHttpException extends VkApiException {
+    /**
+     * HTTP status code.
+     */
+    private final int statusCode;
+
+    public VkHttpException(int statusCode) {
+        super("Response code: " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Gets HTTP status code.
+     *
+     * @return HTTP status code, e.g. 502.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,44 @@
+package api.longpoll.bots.exceptions;
+
+import java.util.Collections;
+
+/**
+ * Occurs when Long Poll server returns "failed" response.
+ *
+ * @see <a href="https://vk.com/dev/bots_longpoll">Bots Long Poll API</a>
+ */
+public class VkLongPollFailedException extends VkResponseException {
+    /**
+     * Event history is outdated or partially lost. Polling should be continued with {@link #getTs()}.
+     */
+    public static final int HISTORY_OUTDATED = 1;
+
+    /**
+     * Key is expired. New key should be obtained.
+     */
+    public static final int KEY_EXPIRED = 2;
+
+    /**
+     * Information is lost. New key and {@code ts} should be obtained.
+     */
+    public static final int INFORMATION_LOST = 3;
+
+    /**
+     * New {@code ts} or {@code null} if not provided.
+     */
+    private final Integer ts;
+
+    public VkLongPollFailedException(int failed, Integer ts) {
+        super(failed, "Long Poll request failed", Collections.emptyMap());
+        this.ts = ts;
+    }
+
+    /**
+     * Gets new {@code ts} to continue polling with.
+     *
+     * @return new {@code ts} or {@code null} if not provided.
+     */
+    public Integer getTs() {
+        return ts;
+    }
+}
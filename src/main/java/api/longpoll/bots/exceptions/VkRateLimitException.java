@@ -0,0 +1,29 @@
+package api.longpoll.bots.exceptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occurs when request is rejected by client-side rate limiter, i.e. before it is sent to VK.
+ *
+ * @see api.longpoll.bots.http.RateLimiter
+ */
+public class VkRateLimitException extends VkApiException {
+    /**
+     * Time until the next permit is available (in nanoseconds).
+     */
+    private final long retryAfter;
+
+    public VkRateLimitException(long retryAfter) {
+        super("Too many requests per second, retry in " + TimeUnit.NANOSECONDS.toMillis(retryAfter) + " ms");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets time until the next permit is available.
+     *
+     * @return time until the next permit is available (in nanoseconds).
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
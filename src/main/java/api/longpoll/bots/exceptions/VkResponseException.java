@@ -1,10 +1,85 @@
 package api.longpoll.bots.exceptions;
 
+import api.longpoll.bots.model.response.ErrorResponseBody;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Occurs when VK returns "error" of "failed" response.
  */
 public class VkResponseException extends VkApiException {
+    /**
+     * Error code or {@code null} if unknown.
+     */
+    private final Integer code;
+
+    /**
+     * Error description.
+     */
+    private final String errorMessage;
+
+    /**
+     * Parameters of the failed request.
+     */
+    private final Map<String, String> requestParams;
+
     public VkResponseException(String message) {
-        super(message);
+        this(null, message, Collections.emptyMap());
+    }
+
+    public VkResponseException(ErrorResponseBody.VkError error) {
+        this(error.getErrorCode(), error.getErrorMsg(), toMap(error));
+    }
+
+    public VkResponseException(Integer code, String errorMessage, Map<String, String> requestParams) {
+        super(code != null ? "VK error " + code + ": " + errorMessage : errorMessage);
+        this.code = code;
+        this.errorMessage = errorMessage;
+        this.requestParams = requestParams;
+    }
+
+    /**
+     * Gets error code.
+     *
+     * @return error code or {@code null} if unknown.
+     * @see <a href="https://vk.com/dev/errors">error codes</a>
+     */
+    public Integer getCode() {
+        return code;
+    }
+
+    /**
+     * Gets error description.
+     *
+     * @return error description.
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Gets parameters of the failed request.
+     *
+     * @return parameters of the failed request.
+     */
+    public Map<String, String> getRequestParams() {
+        return requestParams;
+    }
+
+    /**
+     * Converts request params of VK error to {@link Map}.
+     *
+     * @param error VK error.
+     * @return request params.
+     */
+    private static Map<String, String> toMap(ErrorResponseBody.VkError error) {
+        if (error.getRequestParams() == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> requestParams = new LinkedHashMap<>();
+        error.getRequestParams().forEach(requestParam -> requestParams.put(requestParam.getKey(), requestParam.getValue()));
+        return Collections.unmodifiableMap(requestParams);
     }
 }
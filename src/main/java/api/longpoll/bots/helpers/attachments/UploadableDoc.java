@@ -1,6 +1,7 @@
 package api.longpoll.bots.helpers.attachments;
 
 import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.docs.GetMessagesUploadServer;
 import api.longpoll.bots.methods.impl.docs.Save;
 import api.longpoll.bots.methods.impl.upload.UploadDoc;
@@ -29,10 +30,22 @@ public class UploadableDoc implements UploadableFile {
      */
     private final Function<String, UploadDoc> uploadDocFactory;
 
+    /**
+     * HTTP client to execute methods with.
+     */
+    private final VkHttpClient httpClient;
+
     public UploadableDoc(String accessToken, int peerId, Function<String, UploadDoc> uploadDocFactory) {
+        this(accessToken, peerId, uploadDocFactory, VkHttpClient.getDefault());
+    }
+
+    public UploadableDoc(String accessToken, int peerId, Function<String, UploadDoc> uploadDocFactory, VkHttpClient httpClient) {
         this.getMessagesUploadServer = new GetMessagesUploadServer(accessToken).setType("doc").setPeerId(peerId);
+        this.getMessagesUploadServer.setHttpClient(httpClient);
         this.save = new Save(accessToken);
+        this.save.setHttpClient(httpClient);
         this.uploadDocFactory = uploadDocFactory;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -40,7 +53,7 @@ public class UploadableDoc implements UploadableFile {
         String uploadUrl = getMessagesUploadServer.execute()
                 .getResponse()
                 .getUploadUrl();
-        UploadDoc.ResponseBody upload = uploadDocFactory.apply(uploadUrl).execute();
+        UploadDoc.ResponseBody upload = uploadDocFactory.apply(uploadUrl).setHttpClient(httpClient).execute();
         Doc doc = save.setFile(upload.getFile())
                 .execute()
                 .getResponse()
@@ -52,7 +65,7 @@ public class UploadableDoc implements UploadableFile {
     public CompletableFuture<UploadedFile> uploadAsync() {
         return getMessagesUploadServer.executeAsync()
                 .thenApply(uploadServer -> uploadServer.getResponse().getUploadUrl())
-                .thenCompose(uploadUrl -> uploadDocFactory.apply(uploadUrl).executeAsync())
+                .thenCompose(uploadUrl -> uploadDocFactory.apply(uploadUrl).setHttpClient(httpClient).executeAsync())
                 .thenCompose(upload -> save.setFile(upload.getFile()).executeAsync())
                 .thenApply(savedDoc -> savedDoc.getResponse().getDoc())
                 .thenApply(doc -> new UploadedFile("doc", doc.getOwnerId(), doc.getId(), doc.getAccessKey()));
@@ -51,6 +51,15 @@ public class UploadableFilesSupplier implements Supplier<List<UploadableFile>> {
         uploadableFileFactories.add(uploadableFileFactory);
     }
 
+    /**
+     * Checks whether no files are added.
+     *
+     * @return {@code true} if there is nothing to upload.
+     */
+    public boolean isEmpty() {
+        return uploadableFileFactories.isEmpty();
+    }
+
     @Override
     public List<UploadableFile> get() {
         return peerIds.stream()
@@ -1,6 +1,7 @@
 package api.longpoll.bots.helpers.attachments;
 
 import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.VkMethod;
 import api.longpoll.bots.methods.impl.photos.GetMessagesUploadServer;
 import api.longpoll.bots.methods.impl.photos.SaveMessagesPhoto;
@@ -29,10 +30,22 @@ public class UploadablePhoto implements UploadableFile {
      */
     private final Function<String, UploadPhoto> uploadPhotoFactory;
 
+    /**
+     * HTTP client to execute methods with.
+     */
+    private final VkHttpClient httpClient;
+
     public UploadablePhoto(String accessToken, int peerId, Function<String, UploadPhoto> uploadPhotoFactory) {
+        this(accessToken, peerId, uploadPhotoFactory, VkHttpClient.getDefault());
+    }
+
+    public UploadablePhoto(String accessToken, int peerId, Function<String, UploadPhoto> uploadPhotoFactory, VkHttpClient httpClient) {
         this.getMessagesUploadServer = new GetMessagesUploadServer(accessToken).setPeerId(peerId);
+        this.getMessagesUploadServer.setHttpClient(httpClient);
         this.saveMessagesPhoto = new SaveMessagesPhoto(accessToken);
+        this.saveMessagesPhoto.setHttpClient(httpClient);
         this.uploadPhotoFactory = uploadPhotoFactory;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -40,7 +53,7 @@ public class UploadablePhoto implements UploadableFile {
         String uploadUrl = getMessagesUploadServer.execute()
                 .getResponse()
                 .getUploadUrl();
-        UploadPhoto.ResponseBody upload = uploadPhotoFactory.apply(uploadUrl).execute();
+        UploadPhoto.ResponseBody upload = uploadPhotoFactory.apply(uploadUrl).setHttpClient(httpClient).execute();
         SaveMessagesPhoto.ResponseBody.Response photo = saveMessagesPhoto.setPhoto(upload.getPhoto())
                 .setHash(upload.getHash())
                 .setServer(upload.getServer())
@@ -54,7 +67,7 @@ public class UploadablePhoto implements UploadableFile {
     public CompletableFuture<UploadedFile> uploadAsync() {
         return getMessagesUploadServer.executeAsync()
                 .thenApply(uploadServer -> uploadServer.getResponse().getUploadUrl())
-                .thenCompose(uploadUrl -> uploadPhotoFactory.apply(uploadUrl).executeAsync())
+                .thenCompose(uploadUrl -> uploadPhotoFactory.apply(uploadUrl).setHttpClient(httpClient).executeAsync())
                 .thenApply(upload -> saveMessagesPhoto.setPhoto(upload.getPhoto()).setHash(upload.getHash()).setServer(upload.getServer()))
                 .thenCompose(VkMethod::executeAsync)
                 .thenApply(savedPhoto -> savedPhoto.getResponse().get(0))
@@ -37,6 +37,16 @@ public class InputStreamRequestBody extends RequestBody {
         return contentType;
     }
 
+    /**
+     * The stream can be read only once, so the request is not sent again.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
     @Override
     public void writeTo(@NotNull BufferedSink bufferedSink) throws IOException {
         try (Source source = Okio.source(file)) {
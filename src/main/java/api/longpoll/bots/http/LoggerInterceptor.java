@@ -5,7 +5,6 @@ import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 
@@ -30,6 +29,9 @@ public class LoggerInterceptor implements Interceptor {
     @Override
     public Response intercept(@NotNull Chain chain) throws IOException {
         Request request = chain.request();
+        if (!logger.isDebugEnabled()) {
+            return chain.proceed(request);
+        }
 
         RequestBody body = request.body();
         logger.debug(
@@ -44,21 +46,13 @@ public class LoggerInterceptor implements Interceptor {
         Response response = chain.proceed(request);
         long end = System.currentTimeMillis();
 
-        ResponseBody responseBody = response.body();
-        String stringBody = responseBody != null ? responseBody.string() : "{}";
-
         logger.debug(
                 "<-- {}ms: {} {}",
                 end - start,
                 response.code(),
-                stringBody
+                response.body() != null ? response.peekBody(Long.MAX_VALUE).string() : "{}"
         );
-
-        ResponseBody responseBodyCopy = responseBody != null
-                ? ResponseBody.create(stringBody, responseBody.contentType())
-                : ResponseBody.create(new byte[0], null);
-        response.close();
-        return response.newBuilder().body(responseBodyCopy).build();
+        return response;
     }
 
     /**
@@ -0,0 +1,162 @@
+package api.longpoll.bots.http;
+
+import api.longpoll.bots.exceptions.VkRateLimitException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits rate of VK API requests per access token.
+ * <p>
+ * Each access token has its own token bucket which holds up to {@code burst} permits and is refilled at
+ * {@code permitsPerSecond}. A bucket is a single {@link AtomicLong}, the time when it becomes full again, updated by
+ * CAS, so threads acquiring permits never block each other. When a bucket is empty, the request either waits for a
+ * permit ({@link Mode#QUEUE}) or is rejected with {@link VkRateLimitException} ({@link Mode#FAIL_FAST}).
+ * <p>
+ * VK allows about 20 requests per second for community tokens and 3 requests per second for user tokens.
+ */
+public class RateLimiter {
+    /**
+     * Behaviour when no permit is available.
+     */
+    public enum Mode {
+        /**
+         * Request waits for a permit.
+         */
+        QUEUE,
+
+        /**
+         * Request is rejected.
+         */
+        FAIL_FAST
+    }
+
+    /**
+     * Time to refill one permit (in nanoseconds).
+     */
+    private final long interval;
+
+    /**
+     * Time to refill the whole bucket (in nanoseconds).
+     */
+    private final long capacity;
+
+    /**
+     * Behaviour when no permit is available.
+     */
+    private final Mode mode;
+
+    /**
+     * Times when buckets become full again (in nanoseconds) by access token.
+     */
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates limiter which queues requests and allows bursts of one second worth of permits.
+     *
+     * @param permitsPerSecond max number of requests per second.
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, (int) Math.ceil(permitsPerSecond), Mode.QUEUE);
+    }
+
+    /**
+     * Creates limiter which allows {@code permitsPerSecond} requests per access token on average and up to
+     * {@code burst} requests at once.
+     *
+     * @param permitsPerSecond max number of requests per second.
+     * @param burst            max number of requests sent at once after idle period.
+     * @param mode             behaviour when no permit is available.
+     */
+    public RateLimiter(double permitsPerSecond, int burst, Mode mode) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive: " + permitsPerSecond + ", " + burst);
+        }
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.capacity = interval * burst;
+        this.mode = mode;
+    }
+
+    /**
+     * Acquires permit, waiting for it in {@link Mode#QUEUE} mode.
+     *
+     * @param key access token.
+     * @throws VkRateLimitException if no permit is available in {@link Mode#FAIL_FAST} mode.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire(String key) throws VkRateLimitException, InterruptedException {
+        long delay = reserve(key);
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Acquires permit without blocking the caller.
+     *
+     * @param key access token.
+     * @return future which is completed once permit is acquired, or completed with {@link VkRateLimitException} if
+     * no permit is available in {@link Mode#FAIL_FAST} mode.
+     */
+    public CompletableFuture<Void> acquireAsync(String key) {
+        long delay;
+        try {
+            delay = reserve(key);
+        } catch (VkRateLimitException e) {
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> acquired = new CompletableFuture<>();
+        SchedulerHolder.SCHEDULER.schedule(() -> acquired.complete(null), delay, TimeUnit.NANOSECONDS);
+        return acquired;
+    }
+
+    /**
+     * Takes permit from bucket, or reserves the next permit to be refilled.
+     *
+     * @param key access token.
+     * @return time to wait for reserved permit (in nanoseconds), zero or negative if permit is available now.
+     * @throws VkRateLimitException if no permit is available in {@link Mode#FAIL_FAST} mode.
+     */
+    private long reserve(String key) throws VkRateLimitException {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long fullAt = bucket.get();
+            long nextFullAt = Math.max(fullAt, now) + interval;
+            long delay = nextFullAt - capacity - now;
+            if (delay > 0 && mode == Mode.FAIL_FAST) {
+                throw new VkRateLimitException(delay);
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return delay;
+            }
+        }
+    }
+
+    /**
+     * Lazily initializes scheduler of delayed asynchronous requests.
+     */
+    private static class SchedulerHolder {
+        /**
+         * Completes permits of delayed asynchronous requests.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VkRateLimiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
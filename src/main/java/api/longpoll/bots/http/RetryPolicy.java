@@ -0,0 +1,191 @@
+package api.longpoll.bots.http;
+
+import api.longpoll.bots.exceptions.VkHttpException;
+import api.longpoll.bots.exceptions.VkResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether failed VK API request is sent again and when.
+ * <p>
+ * Transient failures are retried: network errors and timeouts, HTTP 5xx and 429, and VK errors 1 (unknown error),
+ * 6 (too many requests per second), 9 (flood control) and 10 (internal server error). Other VK errors, e.g. 5
+ * (authorization failed), 15 (access denied) or 901 (no permission to message the user), are permanent and fail the
+ * call at once.
+ * <p>
+ * The delay before attempt {@code n + 1} is drawn at random from {@code [d / 2, d]}, where
+ * {@code d = min(baseDelay * 2^(n - 1), maxDelay)}, so clients failed at once do not retry in lockstep. Each call has
+ * its own budget: it fails once {@code maxAttempts} are made or the next attempt would start later than
+ * {@code maxElapsed} after the first one.
+ * <p>
+ * A retry sends the very same request, so <b>messages.send</b> keeps its {@code random_id} and VK does not deliver the
+ * message twice if the response to the previous attempt is lost.
+ */
+public class RetryPolicy {
+    /**
+     * Codes of transient VK errors.
+     */
+    private static final Set<Integer> TRANSIENT_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(1, 6, 9, 10)));
+
+    /**
+     * Max number of attempts per call, including the first one.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before the first retry.
+     */
+    private Duration baseDelay = Duration.ofMillis(500);
+
+    /**
+     * Max delay between attempts.
+     */
+    private Duration maxDelay = Duration.ofSeconds(10);
+
+    /**
+     * Max time since the first attempt to start the next one.
+     */
+    private Duration maxElapsed = Duration.ofSeconds(30);
+
+    /**
+     * Checks whether failure is transient, i.e. the same request may succeed later.
+     *
+     * @param e cause of failure.
+     * @return {@code true} if failure is transient.
+     */
+    public static boolean isTransient(Throwable e) {
+        if (e instanceof VkResponseException) {
+            Integer code = ((VkResponseException) e).getCode();
+            return code != null && TRANSIENT_CODES.contains(code);
+        }
+        if (e instanceof VkHttpException) {
+            int statusCode = ((VkHttpException) e).getStatusCode();
+            return statusCode >= 500 || statusCode == 429;
+        }
+        return e instanceof IOException || e != null && e.getCause() instanceof IOException;
+    }
+
+    /**
+     * Checks whether call is retried after the failure. Override to change classification of errors.
+     *
+     * @param e cause of failure.
+     * @return {@code true} if call is retried.
+     */
+    public boolean isRetryable(Throwable e) {
+        return isTransient(e);
+    }
+
+    /**
+     * Gets delay before the next attempt.
+     *
+     * @param attempt number of failed attempt, starting from 1.
+     * @param elapsed time since the first attempt (in nanoseconds).
+     * @param e       cause of failure.
+     * @return delay before the next attempt (in nanoseconds) or {@code -1} if call should fail.
+     */
+    public long getDelay(int attempt, long elapsed, Throwable e) {
+        if (attempt >= maxAttempts || !isRetryable(e)) {
+            return -1;
+        }
+        long ceiling = Math.min(baseDelay.toNanos() << Math.min(attempt - 1, 30), maxDelay.toNanos());
+        if (ceiling < 0) {
+            ceiling = maxDelay.toNanos();
+        }
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        return elapsed + delay <= maxElapsed.toNanos() ? delay : -1;
+    }
+
+    /**
+     * Runs task once delay elapses. Used to send asynchronous calls again without blocking a thread.
+     *
+     * @param task  task to run.
+     * @param delay delay (in nanoseconds).
+     */
+    public void schedule(Runnable task, long delay) {
+        SchedulerHolder.SCHEDULER.schedule(task, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets max number of attempts per call, including the first one. {@code 1} disables retries.
+     *
+     * @param maxAttempts max number of attempts.
+     * @return current instance.
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets delay before the second attempt. Each next attempt waits twice as long, up to max delay.
+     *
+     * @param baseDelay delay before the second attempt.
+     * @return current instance.
+     */
+    public RetryPolicy setBaseDelay(Duration baseDelay) {
+        this.baseDelay = requireNonNegative(baseDelay, "Base delay");
+        return this;
+    }
+
+    /**
+     * Sets max delay between attempts.
+     *
+     * @param maxDelay max delay between attempts.
+     * @return current instance.
+     */
+    public RetryPolicy setMaxDelay(Duration maxDelay) {
+        this.maxDelay = requireNonNegative(maxDelay, "Max delay");
+        return this;
+    }
+
+    /**
+     * Sets max time since the first attempt to start the next one.
+     *
+     * @param maxElapsed time budget of a call.
+     * @return current instance.
+     */
+    public RetryPolicy setMaxElapsed(Duration maxElapsed) {
+        this.maxElapsed = requireNonNegative(maxElapsed, "Max elapsed time");
+        return this;
+    }
+
+    /**
+     * Checks that duration is set and not negative.
+     *
+     * @param duration duration.
+     * @param name     name of duration in error message.
+     * @return the same duration.
+     */
+    private static Duration requireNonNegative(Duration duration, String name) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must not be null or negative: " + duration);
+        }
+        return duration;
+    }
+
+    /**
+     * Lazily initializes scheduler of asynchronous retries.
+     */
+    private static class SchedulerHolder {
+        /**
+         * Sends asynchronous calls again once delay elapses.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VkRetryPolicy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,369 @@
+package api.longpoll.bots.http;
+
+import api.longpoll.bots.utils.VirtualThreads;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport shared by VK API methods.
+ * <p>
+ * Holds a single {@link OkHttpClient}, so all methods bound to the same {@link VkHttpClient} reuse its connection pool
+ * and dispatcher. Instances are thread-safe and intended to be shared across the whole application.
+ */
+public class VkHttpClient {
+    /**
+     * {@link Logger} instance.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(VkHttpClient.class);
+
+    /**
+     * Default timeout for HTTP calls (in seconds).
+     */
+    private static final long DEFAULT_TIMEOUT = 60;
+
+    /**
+     * Default max number of idle connections to keep in the pool.
+     */
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+
+    /**
+     * Default time to keep idle connections alive (in minutes).
+     */
+    private static final long DEFAULT_KEEP_ALIVE = 5;
+
+    /**
+     * Default max number of concurrent asynchronous requests.
+     */
+    private static final int DEFAULT_MAX_REQUESTS = 1024;
+
+    /**
+     * Default max number of concurrent asynchronous requests per host.
+     */
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 256;
+
+    /**
+     * HTTP client.
+     */
+    private final OkHttpClient okHttpClient;
+
+    /**
+     * Limits rate of VK API requests per access token or {@code null} if rate is not limited.
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Policy of sending failed VK API requests again or {@code null} if requests are not retried.
+     */
+    private final RetryPolicy retryPolicy;
+
+    private VkHttpClient(Builder builder) {
+        this.rateLimiter = builder.rateLimiter;
+        this.retryPolicy = builder.retryPolicy;
+        Dispatcher dispatcher = new Dispatcher(builder.executorService != null
+                ? builder.executorService
+                : VirtualThreads.newExecutorOrElse(VkHttpClient::newPlatformThreadExecutor));
+        dispatcher.setMaxRequests(builder.maxRequests);
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+        OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(
+                        builder.maxIdleConnections,
+                        builder.keepAlive.toMillis(),
+                        TimeUnit.MILLISECONDS
+                ))
+                .protocols(builder.http2
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1))
+                .connectTimeout(builder.connectTimeout)
+                .callTimeout(builder.callTimeout)
+                .readTimeout(builder.readTimeout);
+        builder.interceptors.forEach(okHttpClientBuilder::addInterceptor);
+        this.okHttpClient = okHttpClientBuilder
+                .addInterceptor(new LoggerInterceptor(LOGGER))
+                .build();
+    }
+
+    private VkHttpClient(OkHttpClient okHttpClient, RateLimiter rateLimiter, RetryPolicy retryPolicy) {
+        this.okHttpClient = okHttpClient;
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Gets process-wide {@link VkHttpClient} with default settings.
+     *
+     * @return default {@link VkHttpClient}.
+     */
+    public static VkHttpClient getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Creates new {@link Builder}.
+     *
+     * @return new {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates default executor for asynchronous calls: cached pool of daemon platform threads.
+     *
+     * @return executor for asynchronous calls.
+     */
+    private static ExecutorService newPlatformThreadExecutor() {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "VkHttpClient Dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates client which shares connections, interceptors, dispatcher threads, rate limiter and retry policy with
+     * this client, while its asynchronous requests are queued separately, under their own limits. Long-running
+     * requests of the new client, e.g. to Long Poll server, do not hold request slots of this client. Limits may be
+     * changed later by {@link Dispatcher#setMaxRequests(int)} of the new client.
+     *
+     * @param maxRequests max number of concurrent asynchronous requests, in total and per host.
+     * @return new {@link VkHttpClient}.
+     */
+    public VkHttpClient withSeparateQueue(int maxRequests) {
+        Dispatcher dispatcher = new Dispatcher(okHttpClient.dispatcher().executorService());
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        return new VkHttpClient(okHttpClient.newBuilder().dispatcher(dispatcher).build(), rateLimiter, retryPolicy);
+    }
+
+    /**
+     * Prepares HTTP call.
+     *
+     * @param request HTTP request.
+     * @return HTTP call.
+     */
+    public Call newCall(Request request) {
+        return okHttpClient.newCall(request);
+    }
+
+    /**
+     * Gets limiter of VK API request rate.
+     *
+     * @return limiter of request rate per access token or {@code null} if rate is not limited.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets policy of sending failed VK API requests again.
+     *
+     * @return retry policy or {@code null} if requests are not retried.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Closes idle connections. Connections in use are not affected, so the client stays usable.
+     */
+    public void evictIdleConnections() {
+        okHttpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * Stops dispatcher threads and closes idle connections. Requests which are already running are completed, while
+     * new asynchronous requests are rejected. Should be called once no bot uses this client.
+     */
+    public void close() {
+        okHttpClient.dispatcher().executorService().shutdown();
+        evictIdleConnections();
+    }
+
+    /**
+     * Gets underlying {@link OkHttpClient}.
+     *
+     * @return underlying {@link OkHttpClient}.
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * Lazily initializes default {@link VkHttpClient}.
+     */
+    private static class DefaultHolder {
+        /**
+         * Default {@link VkHttpClient} instance.
+         */
+        private static final VkHttpClient INSTANCE = builder().build();
+    }
+
+    /**
+     * {@link VkHttpClient} builder.
+     */
+    public static class Builder {
+        /**
+         * Max number of idle connections to keep in the pool.
+         */
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+        /**
+         * Time to keep idle connections alive.
+         */
+        private Duration keepAlive = Duration.ofMinutes(DEFAULT_KEEP_ALIVE);
+
+        /**
+         * Whether HTTP/2 is allowed.
+         */
+        private boolean http2 = true;
+
+        /**
+         * Connect timeout.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(DEFAULT_TIMEOUT);
+
+        /**
+         * Call timeout.
+         */
+        private Duration callTimeout = Duration.ofSeconds(DEFAULT_TIMEOUT);
+
+        /**
+         * Read timeout.
+         */
+        private Duration readTimeout = Duration.ofSeconds(DEFAULT_TIMEOUT);
+
+        /**
+         * Max number of concurrent asynchronous requests.
+         */
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+
+        /**
+         * Max number of concurrent asynchronous requests per host.
+         */
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+
+        /**
+         * Executor to run asynchronous calls on.
+         * If {@code null}, virtual threads are used on JDK 21+ and cached daemon platform threads otherwise.
+         */
+        private ExecutorService executorService;
+
+        /**
+         * Application interceptors.
+         */
+        private final List<Interceptor> interceptors = new ArrayList<>();
+
+        /**
+         * Limits rate of VK API requests per access token.
+         */
+        private RateLimiter rateLimiter;
+
+        /**
+         * Policy of sending failed VK API requests again.
+         */
+        private RetryPolicy retryPolicy;
+
+        private Builder() {
+        }
+
+        public Builder setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public Builder setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder setHttp2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        public Builder setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        public Builder setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public Builder setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public Builder setExecutorService(ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        public Builder addInterceptor(Interceptor interceptor) {
+            interceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Sets limiter of VK API request rate per access token. By default, rate is not limited.
+         *
+         * @param rateLimiter limiter of request rate.
+         * @return current instance.
+         */
+        public Builder setRateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Sets policy of sending failed VK API requests again. By default, requests are not retried.
+         *
+         * @param retryPolicy retry policy.
+         * @return current instance.
+         */
+        public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Builds {@link VkHttpClient}.
+         *
+         * @return new {@link VkHttpClient}.
+         */
+        public VkHttpClient build() {
+            return new VkHttpClient(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package api.longpoll.bots.methods;
+
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.methods.impl.VkMethod;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Base class for groups of VK API methods.
+ */
+public abstract class AbstractMethods {
+    /**
+     * {@code access_token}.
+     */
+    private final Supplier<String> accessTokenSupplier;
+
+    /**
+     * HTTP client to execute methods with.
+     */
+    private final VkHttpClient httpClient;
+
+    protected AbstractMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        this.accessTokenSupplier = accessTokenSupplier;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Creates VK API method bound to {@link AbstractMethods#httpClient}.
+     *
+     * @param vkMethodFactory creates VK API method by {@code access_token}.
+     * @param <T>             VK API method type.
+     * @return VK API method.
+     */
+    protected <T extends VkMethod<?>> T create(Function<String, T> vkMethodFactory) {
+        T vkMethod = vkMethodFactory.apply(accessTokenSupplier.get());
+        vkMethod.setHttpClient(httpClient);
+        return vkMethod;
+    }
+}
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.board.DeleteComment;
 import api.longpoll.bots.methods.impl.board.RestoreComment;
 
@@ -8,21 +9,20 @@ import java.util.function.Supplier;
 /**
  * Provides Board methods.
  */
-public class BoardMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class BoardMethods extends AbstractMethods {
     public BoardMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public BoardMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public DeleteComment deleteComment() {
-        return new DeleteComment(accessTokenSupplier.get());
+        return create(DeleteComment::new);
     }
 
     public RestoreComment restoreComment() {
-        return new RestoreComment(accessTokenSupplier.get());
+        return create(RestoreComment::new);
     }
 }
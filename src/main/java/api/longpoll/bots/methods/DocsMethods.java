@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.docs.GetMessagesUploadServer;
 import api.longpoll.bots.methods.impl.docs.GetWallUploadServer;
 import api.longpoll.bots.methods.impl.docs.Save;
@@ -10,29 +11,28 @@ import java.util.function.Supplier;
 /**
  * Provides Docs methods.
  */
-public class DocsMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class DocsMethods extends AbstractMethods {
     public DocsMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public DocsMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public GetMessagesUploadServer getMessagesUploadServer() {
-        return new GetMessagesUploadServer(accessTokenSupplier.get());
+        return create(GetMessagesUploadServer::new);
     }
 
     public GetWallUploadServer getWallUploadServer() {
-        return new GetWallUploadServer(accessTokenSupplier.get());
+        return create(GetWallUploadServer::new);
     }
 
     public Save save() {
-        return new Save(accessTokenSupplier.get());
+        return create(Save::new);
     }
 
     public Search search() {
-        return new Search(accessTokenSupplier.get());
+        return create(Search::new);
     }
 }
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.groups.AddAddress;
 import api.longpoll.bots.methods.impl.groups.AddCallbackServer;
 import api.longpoll.bots.methods.impl.groups.DeleteAddress;
@@ -28,101 +29,100 @@ import java.util.function.Supplier;
 /**
  * Provides Groups methods.
  */
-public class GroupsMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class GroupsMethods extends AbstractMethods {
     public GroupsMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public GroupsMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public AddAddress addAddress() {
-        return new AddAddress(accessTokenSupplier.get());
+        return create(AddAddress::new);
     }
 
     public AddCallbackServer addCallbackServer() {
-        return new AddCallbackServer(accessTokenSupplier.get());
+        return create(AddCallbackServer::new);
     }
 
     public DeleteAddress deleteAddress() {
-        return new DeleteAddress(accessTokenSupplier.get());
+        return create(DeleteAddress::new);
     }
 
     public DeleteCallbackServer deleteCallbackServer() {
-        return new DeleteCallbackServer(accessTokenSupplier.get());
+        return create(DeleteCallbackServer::new);
     }
 
     public DisableOnline disableOnline() {
-        return new DisableOnline(accessTokenSupplier.get());
+        return create(DisableOnline::new);
     }
 
     public EditAddress editAddress() {
-        return new EditAddress(accessTokenSupplier.get());
+        return create(EditAddress::new);
     }
 
     public EditCallbackServer editCallbackServer() {
-        return new EditCallbackServer(accessTokenSupplier.get());
+        return create(EditCallbackServer::new);
     }
 
     public EnableOnline enableOnline() {
-        return new EnableOnline(accessTokenSupplier.get());
+        return create(EnableOnline::new);
     }
 
     public GetBanned getBanned() {
-        return new GetBanned(accessTokenSupplier.get());
+        return create(GetBanned::new);
     }
 
     public GetById getById() {
-        return new GetById(accessTokenSupplier.get());
+        return create(GetById::new);
     }
 
     public GetCallbackConfirmationCode getCallbackConfirmationCode() {
-        return new GetCallbackConfirmationCode(accessTokenSupplier.get());
+        return create(GetCallbackConfirmationCode::new);
     }
 
     public GetCallbackServers getCallbackServers() {
-        return new GetCallbackServers(accessTokenSupplier.get());
+        return create(GetCallbackServers::new);
     }
 
     public GetCallbackSettings getCallbackSettings() {
-        return new GetCallbackSettings(accessTokenSupplier.get());
+        return create(GetCallbackSettings::new);
     }
 
     public GetLongPollServer getLongPollServer() {
-        return new GetLongPollServer(accessTokenSupplier.get());
+        return create(GetLongPollServer::new);
     }
 
     public GetLongPollSettings getLongPollSettings() {
-        return new GetLongPollSettings(accessTokenSupplier.get());
+        return create(GetLongPollSettings::new);
     }
 
     public GetMembers getMembers() {
-        return new GetMembers(accessTokenSupplier.get());
+        return create(GetMembers::new);
     }
 
     public GetOnlineStatus getOnlineStatus() {
-        return new GetOnlineStatus(accessTokenSupplier.get());
+        return create(GetOnlineStatus::new);
     }
 
     public GetTokenPermissions getTokenPermissions() {
-        return new GetTokenPermissions(accessTokenSupplier.get());
+        return create(GetTokenPermissions::new);
     }
 
     public IsMember isMember() {
-        return new IsMember(accessTokenSupplier.get());
+        return create(IsMember::new);
     }
 
     public SetCallbackSettings setCallbackSettings() {
-        return new SetCallbackSettings(accessTokenSupplier.get());
+        return create(SetCallbackSettings::new);
     }
 
     public SetLongPollSettings setLongPollSettings() {
-        return new SetLongPollSettings(accessTokenSupplier.get());
+        return create(SetLongPollSettings::new);
     }
 
     public SetSettings setSettings() {
-        return new SetSettings(accessTokenSupplier.get());
+        return create(SetSettings::new);
     }
 }
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.market.EditOrder;
 import api.longpoll.bots.methods.impl.market.GetGroupOrders;
 import api.longpoll.bots.methods.impl.market.GetOrderById;
@@ -10,29 +11,28 @@ import java.util.function.Supplier;
 /**
  * Provides Market methods.
  */
-public class MarketMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class MarketMethods extends AbstractMethods {
     public MarketMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public MarketMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public EditOrder editOrder() {
-        return new EditOrder(accessTokenSupplier.get());
+        return create(EditOrder::new);
     }
 
     public GetGroupOrders getGroupOrders() {
-        return new GetGroupOrders(accessTokenSupplier.get());
+        return create(GetGroupOrders::new);
     }
 
     public GetOrderById getOrderById() {
-        return new GetOrderById(accessTokenSupplier.get());
+        return create(GetOrderById::new);
     }
 
     public GetOrderItems getOrderItems() {
-        return new GetOrderItems(accessTokenSupplier.get());
+        return create(GetOrderItems::new);
     }
 }
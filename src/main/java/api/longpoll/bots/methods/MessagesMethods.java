@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.messages.CreateChat;
 import api.longpoll.bots.methods.impl.messages.Delete;
 import api.longpoll.bots.methods.impl.messages.DeleteChatPhoto;
@@ -34,125 +35,124 @@ import java.util.function.Supplier;
 /**
  * Provides Messages methods.
  */
-public class MessagesMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class MessagesMethods extends AbstractMethods {
     public MessagesMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public MessagesMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public CreateChat createChat() {
-        return new CreateChat(accessTokenSupplier.get());
+        return create(CreateChat::new);
     }
 
     public Delete delete() {
-        return new Delete(accessTokenSupplier.get());
+        return create(Delete::new);
     }
 
     public DeleteConversation deleteConversation() {
-        return new DeleteConversation(accessTokenSupplier.get());
+        return create(DeleteConversation::new);
     }
 
     public DeleteChatPhoto deleteChatPhoto() {
-        return new DeleteChatPhoto(accessTokenSupplier.get());
+        return create(DeleteChatPhoto::new);
     }
 
     public Edit edit() {
-        return new Edit(accessTokenSupplier.get());
+        return create(Edit::new);
     }
 
     public EditChat editChat() {
-        return new EditChat(accessTokenSupplier.get());
+        return create(EditChat::new);
     }
 
     public GetByConversationMessageId getByConversationMessageId() {
-        return new GetByConversationMessageId(accessTokenSupplier.get());
+        return create(GetByConversationMessageId::new);
     }
 
     public GetById getById() {
-        return new GetById(accessTokenSupplier.get());
+        return create(GetById::new);
     }
 
     public GetConversationMembers getConversationMembers() {
-        return new GetConversationMembers(accessTokenSupplier.get());
+        return create(GetConversationMembers::new);
     }
 
     public GetConversations getConversations() {
-        return new GetConversations(accessTokenSupplier.get());
+        return create(GetConversations::new);
     }
 
     public GetConversationsById getConversationsById() {
-        return new GetConversationsById(accessTokenSupplier.get());
+        return create(GetConversationsById::new);
     }
 
     public GetHistory getHistory() {
-        return new GetHistory(accessTokenSupplier.get());
+        return create(GetHistory::new);
     }
 
     public GetHistoryAttachments getHistoryAttachments() {
-        return new GetHistoryAttachments(accessTokenSupplier.get());
+        return create(GetHistoryAttachments::new);
     }
 
     public GetImportantMessages getImportantMessages() {
-        return new GetImportantMessages(accessTokenSupplier.get());
+        return create(GetImportantMessages::new);
     }
 
     public GetInviteLink getInviteLink() {
-        return new GetInviteLink(accessTokenSupplier.get());
+        return create(GetInviteLink::new);
     }
 
     public IsMessagesFromGroupAllowed isMessagesFromGroupAllowed() {
-        return new IsMessagesFromGroupAllowed(accessTokenSupplier.get());
+        return create(IsMessagesFromGroupAllowed::new);
     }
 
     public MarkAsAnsweredConversation markAsAnsweredConversation() {
-        return new MarkAsAnsweredConversation(accessTokenSupplier.get());
+        return create(MarkAsAnsweredConversation::new);
     }
 
     public MarkAsImportantConversation markAsImportantConversation() {
-        return new MarkAsImportantConversation(accessTokenSupplier.get());
+        return create(MarkAsImportantConversation::new);
     }
 
     public MarkAsRead markAsRead() {
-        return new MarkAsRead(accessTokenSupplier.get());
+        return create(MarkAsRead::new);
     }
 
     public Pin pin() {
-        return new Pin(accessTokenSupplier.get());
+        return create(Pin::new);
     }
 
     public RemoveChatUser removeChatUser() {
-        return new RemoveChatUser(accessTokenSupplier.get());
+        return create(RemoveChatUser::new);
     }
 
     public Restore restore() {
-        return new Restore(accessTokenSupplier.get());
+        return create(Restore::new);
     }
 
     public SearchConversations searchConversations() {
-        return new SearchConversations(accessTokenSupplier.get());
+        return create(SearchConversations::new);
     }
 
     public Send send() {
-        return new Send(accessTokenSupplier.get());
+        return create(Send::new);
     }
 
     public SendEventAnswer sendEventAnswer() {
-        return new SendEventAnswer(accessTokenSupplier.get());
+        return create(SendEventAnswer::new);
     }
 
     public SetActivity setActivity() {
-        return new SetActivity(accessTokenSupplier.get());
+        return create(SetActivity::new);
     }
 
     public SetChatPhoto setChatPhoto() {
-        return new SetChatPhoto(accessTokenSupplier.get());
+        return create(SetChatPhoto::new);
     }
 
     public Unpin unpin() {
-        return new Unpin(accessTokenSupplier.get());
+        return create(Unpin::new);
     }
 }
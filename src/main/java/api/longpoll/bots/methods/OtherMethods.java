@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.other.Execute;
 
 import java.util.function.Supplier;
@@ -7,17 +8,16 @@ import java.util.function.Supplier;
 /**
  * Provides other methods.
  */
-public class OtherMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class OtherMethods extends AbstractMethods {
     public OtherMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public OtherMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public Execute execute() {
-        return new Execute(accessTokenSupplier.get());
+        return create(Execute::new);
     }
 }
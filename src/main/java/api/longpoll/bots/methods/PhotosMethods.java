@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.photos.GetChatUploadServer;
 import api.longpoll.bots.methods.impl.photos.GetMessagesUploadServer;
 import api.longpoll.bots.methods.impl.photos.GetOwnerCoverPhotoUploadServer;
@@ -11,33 +12,32 @@ import java.util.function.Supplier;
 /**
  * Provides Photos methods.
  */
-public class PhotosMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class PhotosMethods extends AbstractMethods {
     public PhotosMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public PhotosMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public GetChatUploadServer getChatUploadServer() {
-        return new GetChatUploadServer(accessTokenSupplier.get());
+        return create(GetChatUploadServer::new);
     }
 
     public GetMessagesUploadServer getMessagesUploadServer() {
-        return new GetMessagesUploadServer(accessTokenSupplier.get());
+        return create(GetMessagesUploadServer::new);
     }
 
     public GetOwnerCoverPhotoUploadServer getOwnerCoverPhotoUploadServer() {
-        return new GetOwnerCoverPhotoUploadServer(accessTokenSupplier.get());
+        return create(GetOwnerCoverPhotoUploadServer::new);
     }
 
     public SaveMessagesPhoto saveMessagesPhoto() {
-        return new SaveMessagesPhoto(accessTokenSupplier.get());
+        return create(SaveMessagesPhoto::new);
     }
 
     public SaveOwnerCoverPhoto saveOwnerCoverPhoto() {
-        return new SaveOwnerCoverPhoto(accessTokenSupplier.get());
+        return create(SaveOwnerCoverPhoto::new);
     }
 }
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.stories.Delete;
 import api.longpoll.bots.methods.impl.stories.Get;
 import api.longpoll.bots.methods.impl.stories.GetById;
@@ -17,57 +18,56 @@ import java.util.function.Supplier;
 /**
  * Provides Stories methods.
  */
-public class StoriesMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class StoriesMethods extends AbstractMethods {
     public StoriesMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public StoriesMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public Delete delete() {
-        return new Delete(accessTokenSupplier.get());
+        return create(Delete::new);
     }
 
     public Get get() {
-        return new Get(accessTokenSupplier.get());
+        return create(Get::new);
     }
 
     private GetById getById() {
-        return new GetById(accessTokenSupplier.get());
+        return create(GetById::new);
     }
 
     public GetPhotoUploadServer getPhotoUploadServer() {
-        return new GetPhotoUploadServer(accessTokenSupplier.get());
+        return create(GetPhotoUploadServer::new);
     }
 
     public GetReplies getReplies() {
-        return new GetReplies(accessTokenSupplier.get());
+        return create(GetReplies::new);
     }
 
     public GetStats getStats() {
-        return new GetStats(accessTokenSupplier.get());
+        return create(GetStats::new);
     }
 
     public GetVideoUploadServer getVideoUploadServer() {
-        return new GetVideoUploadServer(accessTokenSupplier.get());
+        return create(GetVideoUploadServer::new);
     }
 
     public GetViewers getViewers() {
-        return new GetViewers(accessTokenSupplier.get());
+        return create(GetViewers::new);
     }
 
     public HideAllReplies hideAllReplies() {
-        return new HideAllReplies(accessTokenSupplier.get());
+        return create(HideAllReplies::new);
     }
 
     public HideReply hideReply() {
-        return new HideReply(accessTokenSupplier.get());
+        return create(HideReply::new);
     }
 
     public Save save() {
-        return new Save(accessTokenSupplier.get());
+        return create(Save::new);
     }
 }
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.users.Get;
 
 import java.util.function.Supplier;
@@ -7,17 +8,16 @@ import java.util.function.Supplier;
 /**
  * Provides Users methods.
  */
-public class UsersMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class UsersMethods extends AbstractMethods {
     public UsersMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public UsersMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public Get get() {
-        return new Get(accessTokenSupplier.get());
+        return create(Get::new);
     }
 }
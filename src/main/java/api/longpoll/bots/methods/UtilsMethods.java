@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.utils.CheckLink;
 import api.longpoll.bots.methods.impl.utils.GetLinkStats;
 import api.longpoll.bots.methods.impl.utils.GetServerTime;
@@ -11,33 +12,32 @@ import java.util.function.Supplier;
 /**
  * Provides Utils methods.
  */
-public class UtilsMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class UtilsMethods extends AbstractMethods {
     public UtilsMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public UtilsMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public CheckLink checkLink() {
-        return new CheckLink(accessTokenSupplier.get());
+        return create(CheckLink::new);
     }
 
     public GetLinkStats getLinkStats() {
-        return new GetLinkStats(accessTokenSupplier.get());
+        return create(GetLinkStats::new);
     }
 
     public GetServerTime getServerTime() {
-        return new GetServerTime(accessTokenSupplier.get());
+        return create(GetServerTime::new);
     }
 
     public GetShortLink getShortLink() {
-        return new GetShortLink(accessTokenSupplier.get());
+        return create(GetShortLink::new);
     }
 
     public ResolveScreenName resolveScreenName() {
-        return new ResolveScreenName(accessTokenSupplier.get());
+        return create(ResolveScreenName::new);
     }
 }
@@ -1,5 +1,7 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
+
 import java.util.function.Supplier;
 
 /**
@@ -23,16 +25,24 @@ public class VkBotsMethods {
     }
 
     public VkBotsMethods(Supplier<String> accessTokenSupplier) {
-        board = new BoardMethods(accessTokenSupplier);
-        docs = new DocsMethods(accessTokenSupplier);
-        groups = new GroupsMethods(accessTokenSupplier);
-        market = new MarketMethods(accessTokenSupplier);
-        messages = new MessagesMethods(accessTokenSupplier);
-        other = new OtherMethods(accessTokenSupplier);
-        photos = new PhotosMethods(accessTokenSupplier);
-        stories = new StoriesMethods(accessTokenSupplier);
-        users = new UsersMethods(accessTokenSupplier);
-        utils = new UtilsMethods(accessTokenSupplier);
-        wall = new WallMethods(accessTokenSupplier);
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public VkBotsMethods(String accessToken, VkHttpClient httpClient) {
+        this(() -> accessToken, httpClient);
+    }
+
+    public VkBotsMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        board = new BoardMethods(accessTokenSupplier, httpClient);
+        docs = new DocsMethods(accessTokenSupplier, httpClient);
+        groups = new GroupsMethods(accessTokenSupplier, httpClient);
+        market = new MarketMethods(accessTokenSupplier, httpClient);
+        messages = new MessagesMethods(accessTokenSupplier, httpClient);
+        other = new OtherMethods(accessTokenSupplier, httpClient);
+        photos = new PhotosMethods(accessTokenSupplier, httpClient);
+        stories = new StoriesMethods(accessTokenSupplier, httpClient);
+        users = new UsersMethods(accessTokenSupplier, httpClient);
+        utils = new UtilsMethods(accessTokenSupplier, httpClient);
+        wall = new WallMethods(accessTokenSupplier, httpClient);
     }
 }
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods;
 
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.methods.impl.wall.CloseComments;
 import api.longpoll.bots.methods.impl.wall.CreateComment;
 import api.longpoll.bots.methods.impl.wall.OpenComments;
@@ -9,25 +10,24 @@ import java.util.function.Supplier;
 /**
  * Provides Utils methods.
  */
-public class WallMethods {
-    /**
-     * {@code access_token}.
-     */
-    private final Supplier<String> accessTokenSupplier;
-
+public class WallMethods extends AbstractMethods {
     public WallMethods(Supplier<String> accessTokenSupplier) {
-        this.accessTokenSupplier = accessTokenSupplier;
+        this(accessTokenSupplier, VkHttpClient.getDefault());
+    }
+
+    public WallMethods(Supplier<String> accessTokenSupplier, VkHttpClient httpClient) {
+        super(accessTokenSupplier, httpClient);
     }
 
     public CloseComments closeComments() {
-        return new CloseComments(accessTokenSupplier.get());
+        return create(CloseComments::new);
     }
 
     public CreateComment createComment() {
-        return new CreateComment(accessTokenSupplier.get());
+        return create(CreateComment::new);
     }
 
     public OpenComments openComments() {
-        return new OpenComments(accessTokenSupplier.get());
+        return create(OpenComments::new);
     }
 }
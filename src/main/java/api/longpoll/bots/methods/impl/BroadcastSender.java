@@ -0,0 +1,487 @@
+package api.longpoll.bots.methods.impl;
+
+import api.longpoll.bots.exceptions.VkRateLimitException;
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.http.RetryPolicy;
+import api.longpoll.bots.methods.impl.messages.Send;
+import api.longpoll.bots.utils.RandomIds;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Sends one message to many peers.
+ * <p>
+ * Peer IDs are read lazily and sent in <b>messages.send</b> calls of up to {@value BroadcastSender#MAX_PEERS}
+ * {@code peer_ids}. Up to {@code parallelism} calls are in flight at once, each of them waits for a permit of the
+ * {@link api.longpoll.bots.http.RateLimiter} of the HTTP client, if any. Peers which failed with a temporary error are
+ * sent again, others are reported to failure listener. Calls are sent without {@link RetryPolicy} of the HTTP client,
+ * so that peers are retried by the sender alone, within {@code maxAttempts}. At most {@code parallelism * 100} peer
+ * IDs are held in memory, whatever the size of the audience:
+ * <pre>{@code
+ * new BroadcastSender(() -> vk.messages.send().setMessage("Hello"))
+ *         .setProgressListener(progress -> log.info("{}", progress))
+ *         .setFailureListener((peerId, e) -> log.warn("Not sent to {}", peerId, e))
+ *         .send(subscribers.stream())
+ *         .thenAccept(progress -> log.info("Done: {}", progress));
+ * }</pre>
+ * Attachments should be uploaded in advance and set by {@code setAttachment}, otherwise they are uploaded for each
+ * call.
+ */
+public class BroadcastSender {
+    /**
+     * Max number of {@code peer_ids} in <b>messages.send</b>.
+     */
+    public static final int MAX_PEERS = 100;
+
+    /**
+     * Retry policy of calls: failed peers are retried by the sender rather than by the HTTP client.
+     */
+    private static final RetryPolicy NO_RETRY = new RetryPolicy().setMaxAttempts(1);
+
+    /**
+     * Creates <b>messages.send</b> calls with all parameters but recipients.
+     */
+    private final Supplier<Send> messageFactory;
+
+    /**
+     * Max number of calls in flight.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Max number of attempts to send message to peer.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before the first retry, doubled for each next one.
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    /**
+     * Notified once a call is completed.
+     */
+    private Consumer<Progress> progressListener = progress -> {
+    };
+
+    /**
+     * Notified once message is not sent to peer.
+     */
+    private BiConsumer<Integer, Throwable> failureListener = (peerId, e) -> {
+    };
+
+    /**
+     * Creates sender of messages made by {@code messageFactory}.
+     *
+     * @param messageFactory creates <b>messages.send</b> calls with all parameters but recipients, e.g.
+     *                       {@code () -> vk.messages.send().setMessage("Hello")}.
+     */
+    public BroadcastSender(Supplier<Send> messageFactory) {
+        this.messageFactory = messageFactory;
+    }
+
+    /**
+     * Sends message to peers.
+     *
+     * @param peerIds peer IDs. The stream is closed once broadcast is completed.
+     * @return final progress wrapped to CompletableFuture. Cancel it to stop broadcast.
+     */
+    public CompletableFuture<Progress> send(Stream<Integer> peerIds) {
+        CompletableFuture<Progress> result = send(peerIds.iterator());
+        result.whenComplete((progress, e) -> peerIds.close());
+        return result;
+    }
+
+    /**
+     * Sends message to peers.
+     *
+     * @param peerIds peer IDs.
+     * @return final progress wrapped to CompletableFuture. Cancel it to stop broadcast.
+     */
+    public CompletableFuture<Progress> send(Iterator<Integer> peerIds) {
+        return new Broadcast(peerIds).start();
+    }
+
+    /**
+     * Sets max number of calls in flight.
+     *
+     * @param parallelism max number of calls in flight.
+     * @return current instance.
+     */
+    public BroadcastSender setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets max number of attempts to send message to peer, including the first one. {@code 1} disables retries.
+     *
+     * @param maxAttempts max number of attempts.
+     * @return current instance.
+     */
+    public BroadcastSender setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets delay before the first retry of failed peers. Each next retry waits twice as long.
+     *
+     * @param retryDelay delay before the first retry.
+     * @return current instance.
+     */
+    public BroadcastSender setRetryDelay(Duration retryDelay) {
+        if (retryDelay == null || retryDelay.isNegative()) {
+            throw new IllegalArgumentException("Retry delay must not be null or negative: " + retryDelay);
+        }
+        this.retryDelay = retryDelay;
+        return this;
+    }
+
+    /**
+     * Sets listener notified once a call is completed. It may be called from several threads at once.
+     *
+     * @param progressListener progress listener.
+     * @return current instance.
+     */
+    public BroadcastSender setProgressListener(Consumer<Progress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Sets listener notified once message is not sent to peer, either because of a permanent error, e.g. VK error 901,
+     * or because all attempts failed. It may be called from several threads at once.
+     *
+     * @param failureListener failure listener, accepts peer ID and cause.
+     * @return current instance.
+     */
+    public BroadcastSender setFailureListener(BiConsumer<Integer, Throwable> failureListener) {
+        this.failureListener = failureListener;
+        return this;
+    }
+
+    /**
+     * Checks whether call failed with a temporary error.
+     *
+     * @param e cause.
+     * @return {@code true} if call is worth retrying.
+     * @see RetryPolicy#isTransient(Throwable)
+     */
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof VkRateLimitException || RetryPolicy.isTransient(e);
+    }
+
+    /**
+     * Converts per-peer error of <b>messages.send</b> to exception.
+     *
+     * @param peerId peer ID.
+     * @param error  error object, e.g. {@code {"code":901,"description":"..."}}.
+     * @return exception.
+     */
+    private static VkResponseException toException(int peerId, JsonObject error) {
+        JsonElement code = error.get("code");
+        JsonElement description = error.get("description");
+        return new VkResponseException(
+                code != null && code.isJsonPrimitive() ? code.getAsInt() : null,
+                description != null && description.isJsonPrimitive() ? description.getAsString() : "Message is not sent",
+                Collections.singletonMap("peer_id", String.valueOf(peerId))
+        );
+    }
+
+    /**
+     * Broadcast progress.
+     */
+    public static class Progress {
+        /**
+         * Number of peers message is sent to.
+         */
+        private final long sent;
+
+        /**
+         * Number of peers message is not sent to.
+         */
+        private final long failed;
+
+        /**
+         * Number of peers sent again.
+         */
+        private final long retried;
+
+        public Progress(long sent, long failed, long retried) {
+            this.sent = sent;
+            this.failed = failed;
+            this.retried = retried;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getRetried() {
+            return retried;
+        }
+
+        @Override
+        public String toString() {
+            return "Progress{" +
+                    "sent=" + sent +
+                    ", failed=" + failed +
+                    ", retried=" + retried +
+                    '}';
+        }
+    }
+
+    /**
+     * Lazily initializes scheduler of retries.
+     */
+    private static class SchedulerHolder {
+        /**
+         * Sends peers again once retry delay elapses, and handles calls which failed at once.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BroadcastSender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Broadcast in progress.
+     * <p>
+     * Each of {@code parallelism} lanes takes the next chunk of peers once its previous chunk is completed, including
+     * retries, so the number of peers in memory is bounded.
+     */
+    private class Broadcast {
+        /**
+         * Peer IDs not yet taken.
+         */
+        private final Iterator<Integer> peerIds;
+
+        /**
+         * Final progress.
+         */
+        private final CompletableFuture<Progress> result = new CompletableFuture<>();
+
+        /**
+         * Number of lanes still sending.
+         */
+        private final AtomicInteger lanes = new AtomicInteger(parallelism);
+
+        /**
+         * Number of peers message is sent to.
+         */
+        private final AtomicLong sent = new AtomicLong();
+
+        /**
+         * Number of peers message is not sent to.
+         */
+        private final AtomicLong failed = new AtomicLong();
+
+        /**
+         * Number of peers sent again.
+         */
+        private final AtomicLong retried = new AtomicLong();
+
+        private Broadcast(Iterator<Integer> peerIds) {
+            this.peerIds = peerIds;
+        }
+
+        /**
+         * Starts lanes.
+         *
+         * @return final progress wrapped to CompletableFuture.
+         */
+        private CompletableFuture<Progress> start() {
+            for (int i = 0; i < parallelism; i++) {
+                next();
+            }
+            return result;
+        }
+
+        /**
+         * Sends the next chunk of peers, or completes the lane if there are no more peers.
+         */
+        private void next() {
+            List<Integer> chunk;
+            try {
+                chunk = nextChunk();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (chunk.isEmpty()) {
+                if (lanes.decrementAndGet() == 0) {
+                    result.complete(getProgress());
+                }
+                return;
+            }
+            send(chunk, RandomIds.next(), 1);
+        }
+
+        /**
+         * Takes up to {@value BroadcastSender#MAX_PEERS} peer IDs.
+         *
+         * @return peer IDs, empty if broadcast is over or stopped.
+         */
+        private List<Integer> nextChunk() {
+            List<Integer> chunk = new ArrayList<>(MAX_PEERS);
+            synchronized (peerIds) {
+                while (!result.isDone() && chunk.size() < MAX_PEERS && peerIds.hasNext()) {
+                    chunk.add(peerIds.next());
+                }
+            }
+            return chunk;
+        }
+
+        /**
+         * Sends message to peers. Retries keep {@code random_id}, so VK does not deliver message twice if response to
+         * the previous attempt is lost. If the call fails at once, e.g. message factory throws, its result is handled
+         * on the scheduler, so that the next chunk is not sent deeper in the same call stack.
+         *
+         * @param chunk    peer IDs.
+         * @param randomId {@code random_id} of the chunk.
+         * @param attempt  number of attempt.
+         */
+        private void send(List<Integer> chunk, int randomId, int attempt) {
+            CompletableFuture<Send.ResponseBody> response;
+            try {
+                response = messageFactory.get()
+                        .setPeerIds(chunk)
+                        .setRandomId(randomId)
+                        .setRetryPolicy(NO_RETRY)
+                        .executeAsync();
+            } catch (RuntimeException e) {
+                response = new CompletableFuture<>();
+                response.completeExceptionally(e);
+            }
+            BiConsumer<Send.ResponseBody, Throwable> handler = (responseBody, e) -> {
+                try {
+                    complete(chunk, randomId, attempt, responseBody, e);
+                } catch (RuntimeException listenerException) {
+                    result.completeExceptionally(listenerException);
+                }
+            };
+            if (response.isDone()) {
+                response.whenCompleteAsync(handler, SchedulerHolder.SCHEDULER);
+            } else {
+                response.whenComplete(handler);
+            }
+        }
+
+        /**
+         * Counts results of the call, then either sends failed peers again or takes the next chunk.
+         *
+         * @param chunk        peer IDs.
+         * @param randomId     {@code random_id} of the chunk.
+         * @param attempt      number of attempt.
+         * @param responseBody response to <b>messages.send</b>, or {@code null} if call failed.
+         * @param e            cause of failure, or {@code null} if call succeeded.
+         */
+        private void complete(List<Integer> chunk, int randomId, int attempt, Send.ResponseBody responseBody, Throwable e) {
+            List<Integer> retryPeers = new ArrayList<>();
+            List<Throwable> retryCauses = new ArrayList<>();
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                chunk.forEach(peerId -> fail(peerId, cause, retryPeers, retryCauses));
+            } else {
+                handle(chunk, responseBody, retryPeers, retryCauses);
+            }
+
+            if (!retryPeers.isEmpty() && attempt < maxAttempts && !result.isDone()) {
+                retried.addAndGet(retryPeers.size());
+                progressListener.accept(getProgress());
+                SchedulerHolder.SCHEDULER.schedule(
+                        () -> send(retryPeers, randomId, attempt + 1),
+                        retryDelay.toNanos() << Math.min(attempt - 1, 16),
+                        TimeUnit.NANOSECONDS
+                );
+                return;
+            }
+            for (int i = 0; i < retryPeers.size(); i++) {
+                failed.incrementAndGet();
+                failureListener.accept(retryPeers.get(i), retryCauses.get(i));
+            }
+            progressListener.accept(getProgress());
+            next();
+        }
+
+        /**
+         * Counts per-peer results of <b>messages.send</b>.
+         *
+         * @param chunk        peer IDs.
+         * @param responseBody response to <b>messages.send</b>.
+         * @param retryPeers   peers to send again.
+         * @param retryCauses  causes of retries.
+         */
+        private void handle(List<Integer> chunk, Send.ResponseBody responseBody, List<Integer> retryPeers, List<Throwable> retryCauses) {
+            if (!(responseBody.getResponse() instanceof List)) {
+                sent.addAndGet(chunk.size());
+                return;
+            }
+            for (Object item : (List<?>) responseBody.getResponse()) {
+                Send.ResponseBody.Response response = (Send.ResponseBody.Response) item;
+                if (response.getError() == null) {
+                    sent.incrementAndGet();
+                } else {
+                    int peerId = response.getPeerId();
+                    fail(peerId, toException(peerId, response.getError()), retryPeers, retryCauses);
+                }
+            }
+        }
+
+        /**
+         * Marks peer to be sent again if error is temporary, otherwise reports failure.
+         *
+         * @param peerId      peer ID.
+         * @param e           cause.
+         * @param retryPeers  peers to send again.
+         * @param retryCauses causes of retries.
+         */
+        private void fail(int peerId, Throwable e, List<Integer> retryPeers, List<Throwable> retryCauses) {
+            if (isRetryable(e)) {
+                retryPeers.add(peerId);
+                retryCauses.add(e);
+            } else {
+                failed.incrementAndGet();
+                failureListener.accept(peerId, e);
+            }
+        }
+
+        /**
+         * Gets current progress.
+         *
+         * @return current progress.
+         */
+        private Progress getProgress() {
+            return new Progress(sent.get(), failed.get(), retried.get());
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package api.longpoll.bots.methods.impl;
+
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.methods.impl.other.Execute;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs independent VK API calls into <b>execute</b> requests.
+ * <p>
+ * Calls submitted within {@code window} with the same access token and {@link VkHttpClient} are sent as one
+ * <b>execute</b> request of up to {@value ExecuteBatcher#MAX_CALLS} calls, which counts as a single request against VK
+ * rate limits. The request is sent by {@link VkHttpClient} of its calls, as are calls sent as is. Results and
+ * {@code execute_errors} are handed back to the future of each call. Calls which cannot be batched, e.g. uploads,
+ * messages with attachments to upload or <b>execute</b> itself, are sent as is. Calls whose futures are cancelled
+ * before the batch is sent are left out of it.
+ * <pre>{@code
+ * ExecuteBatcher batcher = new ExecuteBatcher(Duration.ofMillis(50));
+ * batcher.submit(vk.messages.send().setPeerId(peerId).setMessage("Hello"))
+ *         .thenAccept(response -> ...);
+ * }</pre>
+ * Calls of one batch are independent: they are executed in order of submission, but a failed call does not stop the
+ * rest. Once the batcher is closed, pending calls are sent and new calls are rejected.
+ */
+public class ExecuteBatcher implements AutoCloseable {
+    /**
+     * Max number of API calls within <b>execute</b>.
+     */
+    public static final int MAX_CALLS = 25;
+
+    /**
+     * Writes parameters of calls into VKScript.
+     */
+    private static final Gson CODE_GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    /**
+     * Max time to wait for more calls before batch is sent (in nanoseconds).
+     */
+    private final long window;
+
+    /**
+     * Sends batches once {@link ExecuteBatcher#window} elapses.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ExecuteBatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Batches being filled by HTTP client and access token.
+     */
+    private final Map<BatchKey, List<Call<?>>> batches = new HashMap<>();
+
+    /**
+     * Whether the batcher is closed. Set while holding {@link ExecuteBatcher#batches}.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates batcher which waits up to {@code window} for more calls before a batch is sent.
+     *
+     * @param window max time to wait for more calls before batch is sent.
+     */
+    public ExecuteBatcher(Duration window) {
+        this.window = window.toNanos();
+    }
+
+    /**
+     * Submits VK API call to be sent within the next <b>execute</b> request.
+     *
+     * @param vkMethod     VK API call.
+     * @param <VkResponse> VK API response type.
+     * @return VK API response wrapped to CompletableFuture.
+     * @throws IllegalStateException if the batcher is closed.
+     */
+    public <VkResponse> CompletableFuture<VkResponse> submit(VkMethod<VkResponse> vkMethod) {
+        checkOpen();
+        if (!vkMethod.isBatchable()) {
+            return vkMethod.executeAsync();
+        }
+        BatchKey key = new BatchKey(vkMethod.getHttpClient(), vkMethod.getParams().get("access_token"));
+
+        Call<VkResponse> call = new Call<>(vkMethod);
+        List<Call<?>> full = null;
+        synchronized (batches) {
+            checkOpen();
+            List<Call<?>> batch = batches.get(key);
+            if (batch == null) {
+                batch = new ArrayList<>(MAX_CALLS);
+                batches.put(key, batch);
+                List<Call<?>> scheduled = batch;
+                scheduler.schedule(() -> flush(key, scheduled), window, TimeUnit.NANOSECONDS);
+            }
+            batch.add(call);
+            if (batch.size() == MAX_CALLS) {
+                batches.remove(key);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            send(key, full);
+        }
+        return call.future;
+    }
+
+    /**
+     * Sends pending calls and stops the scheduler. Calls submitted afterwards are rejected.
+     */
+    @Override
+    public void close() {
+        Map<BatchKey, List<Call<?>>> pending;
+        synchronized (batches) {
+            closed = true;
+            pending = new LinkedHashMap<>(batches);
+            batches.clear();
+        }
+        pending.forEach(this::send);
+        scheduler.shutdown();
+    }
+
+    /**
+     * Checks that the batcher accepts calls.
+     *
+     * @throws IllegalStateException if the batcher is closed.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("ExecuteBatcher is closed");
+        }
+    }
+
+    /**
+     * Sends batch if it is still being filled.
+     *
+     * @param key   HTTP client and access token of the batch.
+     * @param batch batch to send.
+     */
+    private void flush(BatchKey key, List<Call<?>> batch) {
+        synchronized (batches) {
+            if (batches.get(key) != batch) {
+                return;
+            }
+            batches.remove(key);
+        }
+        send(key, batch);
+    }
+
+    /**
+     * Sends batch as <b>execute</b> request, leaving cancelled calls out. A single call is sent as is.
+     *
+     * @param key   HTTP client and access token of the batch.
+     * @param calls calls to send.
+     */
+    private void send(BatchKey key, List<Call<?>> calls) {
+        List<Call<?>> batch = new ArrayList<>(calls.size());
+        for (Call<?> call : calls) {
+            if (!call.future.isCancelled()) {
+                batch.add(call);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            batch.get(0).sendAlone();
+            return;
+        }
+
+        StringBuilder code = new StringBuilder("return [");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                code.append(',');
+            }
+            batch.get(i).appendTo(code);
+        }
+        code.append("];");
+
+        Execute execute = new Execute(key.accessToken).setCode(code.toString());
+        execute.setHttpClient(key.httpClient);
+        execute.executeAsync().whenComplete((responseBody, e) -> {
+            if (e != null) {
+                batch.forEach(call -> call.future.completeExceptionally(e));
+            } else {
+                demultiplex(batch, responseBody);
+            }
+        });
+    }
+
+    /**
+     * Hands results of <b>execute</b> request over to calls.
+     * Result of failed call is {@code false}, and its error is the next error of the same method in
+     * {@code execute_errors}.
+     *
+     * @param batch        calls of the batch.
+     * @param responseBody response to <b>execute</b> request.
+     */
+    private static void demultiplex(List<Call<?>> batch, Execute.ResponseBody responseBody) {
+        JsonElement response = responseBody.getResponse();
+        JsonArray results = response != null && response.isJsonArray() ? response.getAsJsonArray() : new JsonArray();
+        Queue<Execute.ResponseBody.ExecuteError> errors = new ArrayDeque<>(responseBody.getExecuteErrors() != null
+                ? responseBody.getExecuteErrors()
+                : Collections.emptyList());
+
+        for (int i = 0; i < batch.size(); i++) {
+            Call<?> call = batch.get(i);
+            if (i >= results.size()) {
+                call.future.completeExceptionally(new VkResponseException("No result of " + call.vkMethod.getMethodName() + " in execute response."));
+                continue;
+            }
+            JsonElement result = results.get(i);
+            Execute.ResponseBody.ExecuteError error = errors.peek();
+            if (isFalse(result) && error != null && call.vkMethod.getMethodName().equals(error.getMethod())) {
+                errors.remove();
+                call.future.completeExceptionally(new VkResponseException(
+                        error.getErrorCode(),
+                        error.getErrorMsg(),
+                        Collections.singletonMap("method", error.getMethod())
+                ));
+            } else {
+                call.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Checks whether result is {@code false}.
+     *
+     * @param result result of call.
+     * @return {@code true} if result is {@code false}.
+     */
+    private static boolean isFalse(JsonElement result) {
+        return result.isJsonPrimitive() && result.getAsJsonPrimitive().isBoolean() && !result.getAsBoolean();
+    }
+
+    /**
+     * VK API call waiting for its result.
+     *
+     * @param <VkResponse> VK API response type.
+     */
+    private static class Call<VkResponse> {
+        /**
+         * VK API call.
+         */
+        private final VkMethod<VkResponse> vkMethod;
+
+        /**
+         * Result of the call.
+         */
+        private final CompletableFuture<VkResponse> future = new CompletableFuture<>();
+
+        private Call(VkMethod<VkResponse> vkMethod) {
+            this.vkMethod = vkMethod;
+        }
+
+        /**
+         * Writes the call as VKScript expression, e.g. {@code API.messages.send({"peer_id":"1"})}. Access token and
+         * API version are taken from <b>execute</b> request.
+         *
+         * @param code VKScript code.
+         */
+        private void appendTo(StringBuilder code) {
+            Map<String, String> params = new LinkedHashMap<>(vkMethod.getParams());
+            params.remove("access_token");
+            params.remove("v");
+            code.append("API.").append(vkMethod.getMethodName()).append('(').append(CODE_GSON.toJson(params)).append(')');
+        }
+
+        /**
+         * Completes future with result.
+         *
+         * @param result result of the call.
+         */
+        private void complete(JsonElement result) {
+            try {
+                future.complete(vkMethod.readResponse(result));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Sends the call as is. Cancelling the future of the call cancels the request.
+         */
+        private void sendAlone() {
+            CompletableFuture<VkResponse> request = vkMethod.executeAsync();
+            request.whenComplete((response, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(response);
+                }
+            });
+            future.whenComplete((response, e) -> {
+                if (future.isCancelled()) {
+                    request.cancel(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * HTTP client and access token shared by calls of one batch.
+     */
+    private static class BatchKey {
+        /**
+         * HTTP client of the calls.
+         */
+        private final VkHttpClient httpClient;
+
+        /**
+         * Access token of the calls.
+         */
+        private final String accessToken;
+
+        private BatchKey(VkHttpClient httpClient, String accessToken) {
+            this.httpClient = httpClient;
+            this.accessToken = accessToken;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchKey)) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return httpClient == batchKey.httpClient && Objects.equals(accessToken, batchKey.accessToken);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(httpClient), accessToken);
+        }
+    }
+}
@@ -1,27 +1,41 @@
 package api.longpoll.bots.methods.impl;
 
+import api.longpoll.bots.adapters.VkGson;
 import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.exceptions.VkHttpException;
+import api.longpoll.bots.exceptions.VkLongPollFailedException;
 import api.longpoll.bots.exceptions.VkResponseException;
-import api.longpoll.bots.http.LoggerInterceptor;
+import api.longpoll.bots.http.RateLimiter;
+import api.longpoll.bots.http.RetryPolicy;
+import api.longpoll.bots.http.VkHttpClient;
 import api.longpoll.bots.model.objects.additional.Lang;
-import api.longpoll.bots.validator.VkResponseBodyValidator;
+import api.longpoll.bots.model.response.ErrorResponseBody;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.FormBody;
-import okhttp3.OkHttpClient;
+import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
 import org.jetbrains.annotations.NotNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Executes generic HTTP request to VK API.
@@ -30,95 +44,255 @@ import java.util.function.Predicate;
  */
 public abstract class VkMethod<VkResponse> {
     /**
-     * {@link Logger} instance.
-     */
-    private static final Logger LOGGER = LoggerFactory.getLogger(VkMethod.class);
-
-    /**
-     * Timeout for HTTP calls.
-     */
-    private static final int DEFAULT_TIMEOUT = 60;
-
-    /**
-     * Validator to check if VK API response is valid.
+     * {@link Request} builder.
      */
-    private final Predicate<String> responseBodyValidator = new VkResponseBodyValidator();
+    private final Request.Builder requestBuilder = new Request.Builder();
 
     /**
-     * {@link Gson} instance.
+     * Request URL.
      */
-    private final Gson gson = new Gson();
+    private final HttpUrl url;
 
     /**
-     * {@link Request} builder.
+     * Request parameters. Setting a parameter again replaces its value.
      */
-    private final Request.Builder requestBuilder = new Request.Builder();
+    private final Map<String, String> params = new LinkedHashMap<>();
 
     /**
-     * {@link FormBody} builder.
+     * HTTP client.
      */
-    private final FormBody.Builder formBodyBuilder = new FormBody.Builder();
+    private VkHttpClient httpClient = VkHttpClient.getDefault();
 
     /**
-     * HTTP client.
+     * Retry policy of this call or {@code null} to use the policy of {@link VkHttpClient}.
      */
-    private final OkHttpClient okHttpClient = new OkHttpClient.Builder()
-            .callTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-            .readTimeout(DEFAULT_TIMEOUT, TimeUnit.SECONDS)
-            .addInterceptor(new LoggerInterceptor(LOGGER))
-            .build();
+    private RetryPolicy retryPolicy;
 
     public VkMethod(String url, String accessToken) {
+        this(HttpUrl.get(url), accessToken);
+    }
+
+    public VkMethod(HttpUrl url, String accessToken) {
         this(url);
         addParam("access_token", accessToken);
         addParam("v", "5.131");
     }
 
     public VkMethod(String url) {
+        this(HttpUrl.get(url));
+    }
+
+    public VkMethod(HttpUrl url) {
+        this.url = url;
         this.requestBuilder.url(url);
     }
 
     /**
      * Executes request to VK API asynchronously.
+     * Returned {@link CompletableFuture} is completed on a thread of {@link VkHttpClient} dispatcher.
      *
      * @return VK API response wrapped to CompletableFuture
      */
     public CompletableFuture<VkResponse> executeAsync() {
+        return executeAsync(Runnable::run);
+    }
+
+    /**
+     * Executes request to VK API asynchronously.
+     * The request is sent via shared {@link VkHttpClient} dispatcher, and returned {@link CompletableFuture} is
+     * completed on provided {@code executor}, so dependent stages run there as well. Cancelling returned
+     * {@link CompletableFuture} cancels the request. If {@link VkHttpClient} limits request rate, the request is sent
+     * once permit is acquired, without blocking the caller. If the request fails with a transient error, it is sent
+     * again according to {@link RetryPolicy}, also without blocking the caller.
+     *
+     * @param executor executor to complete returned {@link CompletableFuture} on.
+     * @return VK API response wrapped to CompletableFuture
+     */
+    public CompletableFuture<VkResponse> executeAsync(Executor executor) {
         CompletableFuture<VkResponse> completableFuture = new CompletableFuture<>();
-        okHttpClient.newCall(newRequest()).enqueue(new Callback() {
+        AtomicReference<Call> currentCall = new AtomicReference<>();
+        completableFuture.whenComplete((vkResponse, e) -> {
+            Call vkCall = currentCall.get();
+            if (completableFuture.isCancelled() && vkCall != null) {
+                vkCall.cancel();
+            }
+        });
+        sendAsync(newRequest(), completableFuture, currentCall, executor, 1, System.nanoTime());
+        return completableFuture;
+    }
+
+    /**
+     * Makes an attempt to send request asynchronously.
+     *
+     * @param request           HTTP request, the same for all attempts.
+     * @param completableFuture future to complete.
+     * @param currentCall       call of the current attempt, cancelled once the future is cancelled.
+     * @param executor          executor to complete future on.
+     * @param attempt           number of attempt, starting from 1.
+     * @param start             time of the first attempt (in nanoseconds).
+     */
+    private void sendAsync(Request request, CompletableFuture<VkResponse> completableFuture, AtomicReference<Call> currentCall, Executor executor, int attempt, long start) {
+        if (completableFuture.isDone()) {
+            return;
+        }
+        Call vkCall = httpClient.newCall(request);
+        currentCall.set(vkCall);
+        Callback callback = new Callback() {
             @Override
             public void onFailure(@NotNull Call call, @NotNull IOException e) {
-                completableFuture.completeExceptionally(e);
-                okHttpClient.dispatcher().executorService().shutdown();
+                retryOrFail(request, completableFuture, currentCall, executor, attempt, start, e);
             }
 
             @Override
-            public void onResponse(@NotNull Call call, @NotNull Response response) throws IOException {
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
                 try {
-                    completableFuture.complete(extractResponse(response));
-                } catch (VkApiException e) {
-                    completableFuture.completeExceptionally(e);
+                    VkResponse vkResponse = extractResponse(response);
+                    completeAsync(completableFuture, executor, () -> completableFuture.complete(vkResponse));
+                } catch (VkApiException | IOException | RuntimeException e) {
+                    retryOrFail(request, completableFuture, currentCall, executor, attempt, start, e);
+                } finally {
+                    response.close();
                 }
-                okHttpClient.dispatcher().executorService().shutdown();
             }
-        });
-        return completableFuture;
+        };
+
+        RateLimiter rateLimiter = httpClient.getRateLimiter();
+        String accessToken = params.get("access_token");
+        if (rateLimiter == null || accessToken == null) {
+            if (!completableFuture.isDone()) {
+                vkCall.enqueue(callback);
+            }
+        } else {
+            rateLimiter.acquireAsync(accessToken).whenComplete((permit, e) -> {
+                if (e != null) {
+                    completeAsync(completableFuture, executor, () -> completableFuture.completeExceptionally(e));
+                } else if (!completableFuture.isDone()) {
+                    vkCall.enqueue(callback);
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules the next attempt if {@link RetryPolicy} allows it, otherwise fails the future.
+     *
+     * @param request           HTTP request.
+     * @param completableFuture future to complete.
+     * @param currentCall       call of the current attempt.
+     * @param executor          executor to complete future on.
+     * @param attempt           number of failed attempt.
+     * @param start             time of the first attempt (in nanoseconds).
+     * @param e                 cause of failure.
+     */
+    private void retryOrFail(Request request, CompletableFuture<VkResponse> completableFuture, AtomicReference<Call> currentCall, Executor executor, int attempt, long start, Throwable e) {
+        RetryPolicy policy = getRetryPolicy();
+        long delay = completableFuture.isDone() ? -1 : getRetryDelay(policy, attempt, start, e);
+        if (delay < 0) {
+            completeAsync(completableFuture, executor, () -> completableFuture.completeExceptionally(e));
+            return;
+        }
+        try {
+            policy.schedule(() -> sendAsync(request, completableFuture, currentCall, executor, attempt + 1, start), delay);
+        } catch (RejectedExecutionException rejected) {
+            completeAsync(completableFuture, executor, () -> completableFuture.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Runs {@code completion} on {@code executor}.
+     * If {@code executor} rejects the task, {@code completableFuture} is completed exceptionally on current thread.
+     *
+     * @param completableFuture future to complete.
+     * @param executor          executor to complete future on.
+     * @param completion        completes future.
+     */
+    private static void completeAsync(CompletableFuture<?> completableFuture, Executor executor, Runnable completion) {
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completableFuture.completeExceptionally(e);
+        }
     }
 
     /**
      * Executes request to VK API.
+     * If the request fails with a transient error, it is sent again according to {@link RetryPolicy}.
      *
      * @return VK API response.
      * @throws VkApiException if errors occur.
      */
     public VkResponse execute() throws VkApiException {
-        try (Response response = okHttpClient.newCall(newRequest()).execute()) {
+        Request request = newRequest();
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return send(request);
+            } catch (VkApiException e) {
+                long delay = Thread.currentThread().isInterrupted() ? -1 : getRetryDelay(getRetryPolicy(), attempt, start, e);
+                if (delay < 0) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes an attempt to send request.
+     *
+     * @param request HTTP request, the same for all attempts.
+     * @return VK API response.
+     * @throws VkApiException if errors occur.
+     */
+    private VkResponse send(Request request) throws VkApiException {
+        acquirePermit();
+        try (Response response = httpClient.newCall(request).execute()) {
             return extractResponse(response);
         } catch (IOException e) {
             throw new VkApiException(e);
         }
     }
 
+    /**
+     * Gets delay before the next attempt.
+     *
+     * @param policy  retry policy or {@code null} if request is not retried.
+     * @param attempt number of failed attempt.
+     * @param start   time of the first attempt (in nanoseconds).
+     * @param e       cause of failure.
+     * @return delay before the next attempt (in nanoseconds) or {@code -1} if request should fail.
+     */
+    private long getRetryDelay(RetryPolicy policy, int attempt, long start, Throwable e) {
+        if (policy == null || !isRepeatable()) {
+            return -1;
+        }
+        return policy.getDelay(attempt, System.nanoTime() - start, e);
+    }
+
+    /**
+     * Waits for permit of {@link RateLimiter} of {@link VkHttpClient}, if any.
+     *
+     * @throws VkApiException if permit is not acquired.
+     */
+    private void acquirePermit() throws VkApiException {
+        RateLimiter rateLimiter = httpClient.getRateLimiter();
+        String accessToken = params.get("access_token");
+        if (rateLimiter == null || accessToken == null) {
+            return;
+        }
+        try {
+            rateLimiter.acquire(accessToken);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VkApiException(e);
+        }
+    }
+
     /**
      * Gets {@link VkResponse} from {@link Response}.
      *
@@ -129,7 +303,7 @@ public abstract class VkMethod<VkResponse> {
      */
     private VkResponse extractResponse(Response response) throws VkApiException, IOException {
         if (!response.isSuccessful()) {
-            throw new VkApiException("Response code: " + response.code());
+            throw new VkHttpException(response.code());
         }
 
         ResponseBody responseBody = response.body();
@@ -137,12 +311,115 @@ public abstract class VkMethod<VkResponse> {
             throw new VkApiException("Response body is null.");
         }
 
-        String stringBody = responseBody.string();
-        if (responseBodyValidator.negate().test(stringBody)) {
-            throw new VkResponseException(stringBody);
+        return readResponse(responseBody);
+    }
+
+    /**
+     * Reads {@link VkResponse} from response body.
+     *
+     * @param responseBody HTTP response body.
+     * @return {@link VkResponse}.
+     * @throws VkApiException if VK API returns error.
+     * @throws IOException    if errors occur.
+     */
+    protected VkResponse readResponse(ResponseBody responseBody) throws VkApiException, IOException {
+        checkError(responseBody.source().peek());
+        return getGson().fromJson(responseBody.charStream(), getResponseClass());
+    }
+
+    /**
+     * Throws exception if response is VK error.
+     * Only the beginning of response is read: VK error response has a single top-level key, {@code error} or
+     * {@code failed}, while successful response begins with a different key.
+     *
+     * @param source response body source. It is consumed by this method, so a peek source should be provided.
+     * @throws VkResponseException if response is VK error.
+     * @throws IOException         if errors occur.
+     */
+    private void checkError(BufferedSource source) throws VkApiException, IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(source.inputStream(), StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return;
+            }
+            reader.beginObject();
+            if (!reader.hasNext()) {
+                return;
+            }
+            switch (reader.nextName()) {
+                case "error":
+                    throw newResponseException(reader);
+
+                case "failed":
+                    throw new VkLongPollFailedException(reader.nextInt(), null);
+            }
+        }
+    }
+
+    /**
+     * Reads VK error and creates exception for it. Upload servers describe error by a string, e.g.
+     * {@code {"error":"ERR_UPLOAD_BAD_IMAGE_SIZE: ..."}}, while VK API describes it by an object.
+     *
+     * @param reader JSON stream positioned at the value of {@code error} key.
+     * @return exception describing VK error.
+     * @throws IOException if errors occur.
+     */
+    protected VkResponseException newResponseException(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return new VkResponseException(reader.nextString());
         }
+        ErrorResponseBody.VkError error = getGson().fromJson(reader, ErrorResponseBody.VkError.class);
+        return error != null ? new VkResponseException(error) : new VkResponseException("VK error");
+    }
+
+    /**
+     * Reads {@link VkResponse} from value of {@code response} key, e.g. from result of the method called within
+     * <b>execute</b>.
+     *
+     * @param response value of {@code response} key.
+     * @return {@link VkResponse}.
+     */
+    VkResponse readResponse(JsonElement response) {
+        JsonObject responseBody = new JsonObject();
+        responseBody.add("response", response);
+        return getGson().fromJson(responseBody, getResponseClass());
+    }
+
+    /**
+     * Checks whether the method may be called within <b>execute</b>, i.e. it is a VK API method called with
+     * {@code access_token} and its request needs no preparation such as file uploads.
+     *
+     * @return {@code true} if the method may be called within <b>execute</b>.
+     */
+    protected boolean isBatchable() {
+        return params.containsKey("access_token") && !"execute".equals(getMethodName());
+    }
+
+    /**
+     * Checks whether the request may be sent again after failure. Requests with a body which can be written only once,
+     * e.g. an uploaded stream, are not retried.
+     *
+     * @return {@code true} if the request may be sent again.
+     */
+    protected boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * Gets VK method name, i.e. the last segment of request URL.
+     *
+     * @return VK method name, e.g. {@code messages.send}.
+     */
+    String getMethodName() {
+        return url.pathSegments().get(url.pathSize() - 1);
+    }
 
-        return gson.fromJson(stringBody, getResponseClass());
+    /**
+     * Gets request parameters.
+     *
+     * @return request parameters.
+     */
+    Map<String, String> getParams() {
+        return params;
     }
 
     /**
@@ -153,6 +430,15 @@ public abstract class VkMethod<VkResponse> {
      */
     protected abstract Class<VkResponse> getResponseClass();
 
+    /**
+     * Gets {@link Gson} to deserialize VK API response with.
+     *
+     * @return {@link Gson} instance.
+     */
+    protected Gson getGson() {
+        return VkGson.get();
+    }
+
     /**
      * Supplies new HTTP request.
      *
@@ -168,21 +454,63 @@ public abstract class VkMethod<VkResponse> {
      * @return request body.
      */
     protected RequestBody newRequestBody() {
+        FormBody.Builder formBodyBuilder = new FormBody.Builder();
+        params.forEach(formBodyBuilder::add);
         return formBodyBuilder.build();
     }
 
     /**
-     * Adds URL parameter to HTTP request.
+     * Adds URL parameter to HTTP request. If parameter is already added, its value is replaced.
      *
      * @param key   URL parameter key.
      * @param value URL parameter value.
      * @return current instance.
      */
     public VkMethod<VkResponse> addParam(String key, Object value) {
-        formBodyBuilder.add(key, String.valueOf(value));
+        params.put(key, String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Sets HTTP client to execute request with.
+     *
+     * @param httpClient HTTP client.
+     * @return current instance.
+     */
+    public VkMethod<VkResponse> setHttpClient(VkHttpClient httpClient) {
+        this.httpClient = httpClient;
         return this;
     }
 
+    /**
+     * Gets HTTP client to execute request with.
+     *
+     * @return HTTP client.
+     */
+    public VkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Sets retry policy of this call, overriding the policy of {@link VkHttpClient}.
+     *
+     * @param retryPolicy retry policy, e.g. {@code new RetryPolicy().setMaxAttempts(1)} to disable retries.
+     * @return current instance.
+     */
+    public VkMethod<VkResponse> setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Gets retry policy of this call.
+     *
+     * @return retry policy or {@code null} if request is not retried.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy != null ? retryPolicy : httpClient.getRetryPolicy();
+    }
+
     /**
      * Sets {@code lang} parameter.
      *
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class DeleteComment extends VkMethod<IntegerResponseBody> {
     public DeleteComment(String accessToken) {
-        super(VkMethods.get("board.deleteComment"), accessToken);
+        super(VkMethods.getUrl("board.deleteComment"), accessToken);
     }
 
     @Override
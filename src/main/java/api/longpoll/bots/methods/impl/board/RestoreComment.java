@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class RestoreComment extends VkMethod<IntegerResponseBody> {
     public RestoreComment(String accessToken) {
-        super(VkMethods.get("board.restoreComment"), accessToken);
+        super(VkMethods.getUrl("board.restoreComment"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetMessagesUploadServer extends VkMethod<GetMessagesUploadServer.ResponseBody> {
     public GetMessagesUploadServer(String accessToken) {
-        super(VkMethods.get("docs.getMessagesUploadServer"), accessToken);
+        super(VkMethods.getUrl("docs.getMessagesUploadServer"), accessToken);
     }
 
     @Override
@@ -10,7 +10,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class GetWallUploadServer extends VkMethod<GetWallUploadServer.ResponseBody> {
     public GetWallUploadServer(String accessToken) {
-        super(VkMethods.get("docs.getWallUploadServer"), accessToken);
+        super(VkMethods.getUrl("docs.getWallUploadServer"), accessToken);
     }
 
     @Override
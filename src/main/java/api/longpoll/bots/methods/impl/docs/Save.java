@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
 public class Save extends VkMethod<Save.ResponseBody> {
 
     public Save(String accessToken) {
-        super(VkMethods.get("docs.save"), accessToken);
+        super(VkMethods.getUrl("docs.save"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
 public class Search extends VkMethod<Search.ResponseBody> {
 
     public Search(String accessToken) {
-        super(VkMethods.get("docs.search"), accessToken);
+        super(VkMethods.getUrl("docs.search"), accessToken);
     }
 
     @Override
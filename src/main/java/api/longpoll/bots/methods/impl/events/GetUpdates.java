@@ -1,15 +1,28 @@
 package api.longpoll.bots.methods.impl.events;
 
+import api.longpoll.bots.adapters.deserializers.UpdateTypeAdapter;
+import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.exceptions.VkLongPollFailedException;
 import api.longpoll.bots.methods.impl.VkMethod;
 import api.longpoll.bots.model.events.Update;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Gets update events from VK server.
  */
 public class GetUpdates extends VkMethod<GetUpdates.ResponseBody> {
+    /**
+     * Reads updates from JSON stream.
+     */
+    private TypeAdapter<Update> updateAdapter = getGson().getAdapter(Update.class);
+
     public GetUpdates(String url) {
         super(url);
         addParam("act", "a_check");
@@ -21,6 +34,71 @@ public class GetUpdates extends VkMethod<GetUpdates.ResponseBody> {
         return ResponseBody.class;
     }
 
+    /**
+     * Reads response in a single pass right from the response stream: neither response body string nor JSON trees
+     * are built.
+     *
+     * @param responseBody HTTP response body.
+     * @return response.
+     * @throws VkLongPollFailedException if Long Poll server returns "failed".
+     * @throws VkApiException            if VK API returns "error".
+     * @throws IOException    if errors occur.
+     */
+    @Override
+    protected ResponseBody readResponse(okhttp3.ResponseBody responseBody) throws VkApiException, IOException {
+        ResponseBody response = new ResponseBody();
+        Integer failed = null;
+
+        try (JsonReader reader = new JsonReader(responseBody.charStream())) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "ts":
+                        response.setTs(reader.nextInt());
+                        break;
+
+                    case "updates":
+                        List<Update> events = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            events.add(updateAdapter.read(reader));
+                        }
+                        reader.endArray();
+                        response.setEvents(events);
+                        break;
+
+                    case "failed":
+                        failed = reader.nextInt();
+                        break;
+
+                    case "error":
+                        throw newResponseException(reader);
+
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        if (failed != null) {
+            throw new VkLongPollFailedException(failed, response.getTs());
+        }
+        return response;
+    }
+
+    /**
+     * Sets filter of update types. Objects of updates rejected by filter are not deserialized, while {@code ts} and
+     * the rest of updates are processed as usual.
+     *
+     * @param updateFilter checks whether object of update of provided type should be deserialized.
+     * @return current instance.
+     */
+    public GetUpdates setUpdateFilter(Predicate<Update.Type> updateFilter) {
+        this.updateAdapter = new UpdateTypeAdapter(getGson(), updateFilter);
+        return this;
+    }
+
     public GetUpdates setKey(String key) {
         return addParam("key", key);
     }
@@ -29,6 +107,16 @@ public class GetUpdates extends VkMethod<GetUpdates.ResponseBody> {
         return addParam("ts", ts);
     }
 
+    /**
+     * Sets time to wait for updates (in seconds).
+     *
+     * @param wait time to wait for updates (in seconds), at most 90.
+     * @return current instance.
+     */
+    public GetUpdates setWait(int wait) {
+        return addParam("wait", wait);
+    }
+
     @Override
     public GetUpdates addParam(String key, Object value) {
         return (GetUpdates) super.addParam(key, value);
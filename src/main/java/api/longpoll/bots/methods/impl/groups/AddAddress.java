@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
 public class AddAddress extends VkMethod<AddAddress.ResponseBody> {
 
     public AddAddress(String accessToken) {
-        super(VkMethods.get("groups.addAddress"), accessToken);
+        super(VkMethods.getUrl("groups.addAddress"), accessToken);
     }
 
     @Override
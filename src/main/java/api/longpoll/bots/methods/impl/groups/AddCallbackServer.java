@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class AddCallbackServer extends VkMethod<AddCallbackServer.ResponseBody> {
     public AddCallbackServer(String accessToken) {
-        super(VkMethods.get("groups.addCallbackServer"), accessToken);
+        super(VkMethods.getUrl("groups.addCallbackServer"), accessToken);
     }
 
     @Override
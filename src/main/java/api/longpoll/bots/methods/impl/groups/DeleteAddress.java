@@ -11,7 +11,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class DeleteAddress extends VkMethod<IntegerResponseBody> {
     public DeleteAddress(String accessToken) {
-        super(VkMethods.get("groups.deleteAddress"), accessToken);
+        super(VkMethods.getUrl("groups.deleteAddress"), accessToken);
     }
 
     @Override
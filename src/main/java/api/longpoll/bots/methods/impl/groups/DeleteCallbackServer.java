@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class DeleteCallbackServer extends VkMethod<IntegerResponseBody> {
     public DeleteCallbackServer(String accessToken) {
-        super(VkMethods.get("groups.deleteCallbackServer"), accessToken);
+        super(VkMethods.getUrl("groups.deleteCallbackServer"), accessToken);
     }
 
     @Override
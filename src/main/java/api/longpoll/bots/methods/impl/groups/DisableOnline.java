@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class DisableOnline extends VkMethod<IntegerResponseBody> {
     public DisableOnline(String accessToken) {
-        super(VkMethods.get("groups.disableOnline"), accessToken);
+        super(VkMethods.getUrl("groups.disableOnline"), accessToken);
     }
 
     @Override
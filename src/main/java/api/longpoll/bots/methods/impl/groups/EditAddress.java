@@ -12,7 +12,7 @@ public class EditAddress extends VkMethod<EditAddress.ResponseBody> {
 
 
     public EditAddress(String accessToken) {
-        super(VkMethods.get("groups.editAddress"), accessToken);
+        super(VkMethods.getUrl("groups.editAddress"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class EditCallbackServer extends VkMethod<IntegerResponseBody> {
     public EditCallbackServer(String accessToken) {
-        super(VkMethods.get("groups.editCallbackServer"), accessToken);
+        super(VkMethods.getUrl("groups.editCallbackServer"), accessToken);
     }
 
     public EditCallbackServer setUrl(String url) {
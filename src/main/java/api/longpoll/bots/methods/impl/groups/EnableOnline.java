@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class EnableOnline extends VkMethod<IntegerResponseBody> {
     public EnableOnline(String accessToken) {
-        super(VkMethods.get("groups.enableOnline"), accessToken);
+        super(VkMethods.getUrl("groups.enableOnline"), accessToken);
     }
 
     @Override
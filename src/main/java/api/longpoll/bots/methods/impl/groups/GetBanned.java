@@ -20,7 +20,7 @@ import java.util.Arrays;
  */
 public class GetBanned extends VkMethod<GetBanned.ResponseBody> {
     public GetBanned(String accessToken) {
-        super(VkMethods.get("groups.getBanned"), accessToken);
+        super(VkMethods.getUrl("groups.getBanned"), accessToken);
     }
 
     @Override
@@ -18,7 +18,7 @@ import java.util.List;
  */
 public class GetById extends VkMethod<GetById.ResponseBody> {
     public GetById(String accessToken) {
-        super(VkMethods.get("groups.getById"), accessToken);
+        super(VkMethods.getUrl("groups.getById"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetCallbackConfirmationCode extends VkMethod<GetCallbackConfirmationCode.ResponseBody> {
     public GetCallbackConfirmationCode(String accessToken) {
-        super(VkMethods.get("groups.getCallbackConfirmationCode"), accessToken);
+        super(VkMethods.getUrl("groups.getCallbackConfirmationCode"), accessToken);
     }
 
     @Override
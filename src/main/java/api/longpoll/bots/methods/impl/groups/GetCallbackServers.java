@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetCallbackServers extends VkMethod<GetCallbackServers.ResponseBody> {
     public GetCallbackServers(String accessToken) {
-        super(VkMethods.get("groups.getCallbackServers"), accessToken);
+        super(VkMethods.getUrl("groups.getCallbackServers"), accessToken);
     }
 
     @Override
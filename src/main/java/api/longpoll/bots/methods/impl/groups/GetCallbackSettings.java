@@ -16,7 +16,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetCallbackSettings extends VkMethod<GetCallbackSettings.ResponseBody> {
     public GetCallbackSettings(String accessToken) {
-        super(VkMethods.get("groups.getCallbackSettings"), accessToken);
+        super(VkMethods.getUrl("groups.getCallbackSettings"), accessToken);
     }
 
     @Override
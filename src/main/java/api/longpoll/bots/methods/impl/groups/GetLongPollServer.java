@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetLongPollServer extends VkMethod<GetLongPollServer.ResponseBody> {
     public GetLongPollServer(String accessToken) {
-        super(VkMethods.get("groups.getLongPollServer"), accessToken);
+        super(VkMethods.getUrl("groups.getLongPollServer"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetLongPollSettings extends VkMethod<GetLongPollSettings.ResponseBody> {
     public GetLongPollSettings(String accessToken) {
-        super(VkMethods.get("groups.getLongPollSettings"), accessToken);
+        super(VkMethods.getUrl("groups.getLongPollSettings"), accessToken);
     }
 
     @Override
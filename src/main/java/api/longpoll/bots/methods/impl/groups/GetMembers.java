@@ -21,7 +21,7 @@ import java.util.Arrays;
  */
 public class GetMembers extends VkMethod<GetMembers.ResponseBody> {
     public GetMembers(String accessToken) {
-        super(VkMethods.get("groups.getMembers"), accessToken);
+        super(VkMethods.getUrl("groups.getMembers"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
 public class GetOnlineStatus extends VkMethod<GetOnlineStatus.ResponseBody> {
 
     public GetOnlineStatus(String accessToken) {
-        super(VkMethods.get("groups.getOnlineStatus"), accessToken);
+        super(VkMethods.getUrl("groups.getOnlineStatus"), accessToken);
     }
 
     @Override
@@ -16,7 +16,7 @@ import java.util.List;
  */
 public class GetTokenPermissions extends VkMethod<GetTokenPermissions.ResponseBody> {
     public GetTokenPermissions(String accessToken) {
-        super(VkMethods.get("groups.getTokenPermissions"), accessToken);
+        super(VkMethods.getUrl("groups.getTokenPermissions"), accessToken);
     }
 
     @Override
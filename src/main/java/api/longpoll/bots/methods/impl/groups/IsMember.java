@@ -20,7 +20,7 @@ import java.util.Arrays;
  */
 public class IsMember extends VkMethod<IsMember.ResponseBody> {
     public IsMember(String accessToken) {
-        super(VkMethods.get("groups.isMember"), accessToken);
+        super(VkMethods.getUrl("groups.isMember"), accessToken);
     }
 
     @Override
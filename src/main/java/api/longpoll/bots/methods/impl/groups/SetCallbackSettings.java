@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class SetCallbackSettings extends VkMethod<IntegerResponseBody> {
     public SetCallbackSettings(String accessToken) {
-        super(VkMethods.get("groups.setCallbackSettings"), accessToken);
+        super(VkMethods.getUrl("groups.setCallbackSettings"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import api.longpoll.bots.utils.VkMethods;
 public class SetLongPollSettings extends VkMethod<IntegerResponseBody> {
 
     public SetLongPollSettings(String accessToken) {
-        super(VkMethods.get("groups.setLongPollSettings"), accessToken);
+        super(VkMethods.getUrl("groups.setLongPollSettings"), accessToken);
     }
 
     @Override
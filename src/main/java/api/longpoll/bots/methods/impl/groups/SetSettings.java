@@ -12,7 +12,7 @@ import api.longpoll.bots.utils.VkMethods;
 public class SetSettings extends VkMethod<IntegerResponseBody> {
 
     public SetSettings(String accessToken) {
-        super(VkMethods.get("groups.setSettings"), accessToken);
+        super(VkMethods.getUrl("groups.setSettings"), accessToken);
     }
 
     @Override
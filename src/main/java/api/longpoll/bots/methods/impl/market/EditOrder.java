@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class EditOrder extends VkMethod<IntegerResponseBody> {
     public EditOrder(String accessToken) {
-        super(VkMethods.get("market.editOrder"), accessToken);
+        super(VkMethods.getUrl("market.editOrder"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class GetGroupOrders extends VkMethod<GetGroupOrders.ResponseBody> {
     public GetGroupOrders(String accessToken) {
-        super(VkMethods.get("market.getGroupOrders"), accessToken);
+        super(VkMethods.getUrl("market.getGroupOrders"), accessToken);
     }
 
     @Override
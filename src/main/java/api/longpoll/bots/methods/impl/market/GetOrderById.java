@@ -15,7 +15,7 @@ import api.longpoll.bots.utils.VkMethods;
 public class GetOrderById extends VkMethod<GetOrderById.ResponseBody> {
 
     public GetOrderById(String accessToken) {
-        super(VkMethods.get("market.getOrderById"), accessToken);
+        super(VkMethods.getUrl("market.getOrderById"), accessToken);
     }
 
     @Override
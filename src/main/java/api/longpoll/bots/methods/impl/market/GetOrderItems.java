@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetOrderItems extends VkMethod<GetOrderItems.ResponseBody> {
     public GetOrderItems(String accessToken) {
-        super(VkMethods.get("market.getOrderItems"), accessToken);
+        super(VkMethods.getUrl("market.getOrderItems"), accessToken);
     }
 
     @Override
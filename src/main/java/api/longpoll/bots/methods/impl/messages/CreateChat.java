@@ -16,7 +16,7 @@ import java.util.Arrays;
  */
 public class CreateChat extends VkMethod<IntegerResponseBody> {
     public CreateChat(String accessToken) {
-        super(VkMethods.get("messages.createChat"), accessToken);
+        super(VkMethods.getUrl("messages.createChat"), accessToken);
     }
 
     @Override
@@ -17,7 +17,7 @@ import java.util.Map;
  */
 public class Delete extends VkMethod<Delete.ResponseBody> {
     public Delete(String accessToken) {
-        super(VkMethods.get("messages.delete"), accessToken);
+        super(VkMethods.getUrl("messages.delete"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class DeleteChatPhoto extends VkMethod<DeleteChatPhoto.ResponseBody> {
     public DeleteChatPhoto(String accessToken) {
-        super(VkMethods.get("messages.deleteChatPhoto"), accessToken);
+        super(VkMethods.getUrl("messages.deleteChatPhoto"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class DeleteConversation extends VkMethod<DeleteConversation.ResponseBody> {
     public DeleteConversation(String accessToken) {
-        super(VkMethods.get("messages.deleteConversation"), accessToken);
+        super(VkMethods.getUrl("messages.deleteConversation"), accessToken);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods.impl.messages;
 
+import api.longpoll.bots.adapters.VkGson;
 import api.longpoll.bots.exceptions.VkApiException;
 import api.longpoll.bots.helpers.attachments.UploadableDoc;
 import api.longpoll.bots.helpers.attachments.UploadableFile;
@@ -14,7 +15,6 @@ import api.longpoll.bots.model.objects.additional.UploadedFile;
 import api.longpoll.bots.model.response.IntegerResponseBody;
 import api.longpoll.bots.utils.ParamUtils;
 import api.longpoll.bots.utils.VkMethods;
-import com.google.gson.Gson;
 
 import java.io.File;
 import java.io.InputStream;
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -33,11 +34,6 @@ import java.util.stream.Collectors;
  * @see <a href="https://vk.com/dev/messages.edit">https://vk.com/dev/messages.edit</a>
  */
 public class Edit extends VkMethod<IntegerResponseBody> {
-    /**
-     * {@link Gson} instance.
-     */
-    private final Gson gson = new Gson();
-
     /**
      * {@code access_token}.
      */
@@ -49,7 +45,7 @@ public class Edit extends VkMethod<IntegerResponseBody> {
     private final UploadableFilesSupplier uploadableFilesSupplier = new UploadableFilesSupplier();
 
     public Edit(String accessToken) {
-        super(VkMethods.get("messages.edit"), accessToken);
+        super(VkMethods.getUrl("messages.edit"), accessToken);
         this.accessToken = accessToken;
     }
 
@@ -71,7 +67,12 @@ public class Edit extends VkMethod<IntegerResponseBody> {
     }
 
     @Override
-    public CompletableFuture<IntegerResponseBody> executeAsync() {
+    protected boolean isBatchable() {
+        return super.isBatchable() && uploadableFilesSupplier.isEmpty();
+    }
+
+    @Override
+    public CompletableFuture<IntegerResponseBody> executeAsync(Executor executor) {
         List<CompletableFuture<UploadedFile>> uploadedFiles = new ArrayList<>();
         for (UploadableFile uploadableFile : uploadableFilesSupplier.get()) {
             uploadedFiles.add(uploadableFile.uploadAsync());
@@ -82,7 +83,7 @@ public class Edit extends VkMethod<IntegerResponseBody> {
                     if (!attachments.isEmpty()) {
                         setAttachment(attachments);
                     }
-                    return super.executeAsync();
+                    return super.executeAsync(executor);
                 });
     }
 
@@ -90,7 +91,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -99,7 +101,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -108,7 +111,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -117,7 +121,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -126,7 +131,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -135,7 +141,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -144,7 +151,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, filename, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, filename, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -153,7 +161,8 @@ public class Edit extends VkMethod<IntegerResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, filename, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, filename, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -216,7 +225,7 @@ public class Edit extends VkMethod<IntegerResponseBody> {
     }
 
     public Edit setTemplate(Template template) {
-        return addParam("template", gson.toJson(template));
+        return addParam("template", VkGson.get().toJson(template));
     }
 
     public Edit setDisableMentions(boolean disableMentions) {
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class EditChat extends VkMethod<IntegerResponseBody> {
     public EditChat(String accessToken) {
-        super(VkMethods.get("messages.editChat"), accessToken);
+        super(VkMethods.getUrl("messages.editChat"), accessToken);
     }
 
     @Override
@@ -16,7 +16,7 @@ import java.util.Arrays;
  */
 public class GetByConversationMessageId extends VkMethod<GetByConversationMessageId.ResponseBody> {
     public GetByConversationMessageId(String accessToken) {
-        super(VkMethods.get("messages.getByConversationMessageId"), accessToken);
+        super(VkMethods.getUrl("messages.getByConversationMessageId"), accessToken);
     }
 
     @Override
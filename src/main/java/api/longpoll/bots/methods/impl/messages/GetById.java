@@ -15,7 +15,7 @@ import java.util.Arrays;
  */
 public class GetById extends VkMethod<GetById.ResponseBody> {
     public GetById(String accessToken) {
-        super(VkMethods.get("messages.getById"), accessToken);
+        super(VkMethods.getUrl("messages.getById"), accessToken);
     }
 
     @Override
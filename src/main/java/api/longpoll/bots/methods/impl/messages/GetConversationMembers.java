@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetConversationMembers extends VkMethod<GetConversationMembers.ResponseBody> {
     public GetConversationMembers(String accessToken) {
-        super(VkMethods.get("messages.getConversationMembers"), accessToken);
+        super(VkMethods.getUrl("messages.getConversationMembers"), accessToken);
     }
 
 
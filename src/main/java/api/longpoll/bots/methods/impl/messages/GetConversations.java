@@ -20,7 +20,7 @@ import java.util.Arrays;
  */
 public class GetConversations extends VkMethod<GetConversations.ResponseBody> {
     public GetConversations(String accessToken) {
-        super(VkMethods.get("messages.getConversations"), accessToken);
+        super(VkMethods.getUrl("messages.getConversations"), accessToken);
     }
 
     @Override
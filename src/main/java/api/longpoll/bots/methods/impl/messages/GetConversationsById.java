@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetConversationsById extends VkMethod<GetConversationsById.ResponseBody> {
     public GetConversationsById(String accessToken) {
-        super(VkMethods.get("messages.getConversationsById"), accessToken);
+        super(VkMethods.getUrl("messages.getConversationsById"), accessToken);
     }
 
     @Override
@@ -22,7 +22,7 @@ import java.util.List;
  */
 public class GetHistory extends VkMethod<GetHistory.ResponseBody> {
     public GetHistory(String accessToken) {
-        super(VkMethods.get("messages.getHistory"), accessToken);
+        super(VkMethods.getUrl("messages.getHistory"), accessToken);
     }
 
     @Override
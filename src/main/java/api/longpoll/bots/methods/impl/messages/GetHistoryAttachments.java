@@ -19,7 +19,7 @@ import java.util.List;
  */
 public class GetHistoryAttachments extends VkMethod<GetHistoryAttachments.ResponseBody> {
     public GetHistoryAttachments(String accessToken) {
-        super(VkMethods.get("messages.getHistoryAttachments"), accessToken);
+        super(VkMethods.getUrl("messages.getHistoryAttachments"), accessToken);
     }
 
     @Override
@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetImportantMessages extends VkMethod<GetImportantMessages.ResponseBody> {
     public GetImportantMessages(String accessToken) {
-        super(VkMethods.get("messages.getImportantMessages"), accessToken);
+        super(VkMethods.getUrl("messages.getImportantMessages"), accessToken);
     }
 
     @Override
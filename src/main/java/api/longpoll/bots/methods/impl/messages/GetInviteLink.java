@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
 public class GetInviteLink extends VkMethod<GetInviteLink.ResponseBody> {
 
     public GetInviteLink(String accessToken) {
-        super(VkMethods.get("messages.getInviteLink"), accessToken);
+        super(VkMethods.getUrl("messages.getInviteLink"), accessToken);
     }
 
     @Override
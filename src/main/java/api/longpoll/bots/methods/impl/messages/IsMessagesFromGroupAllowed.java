@@ -16,7 +16,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class IsMessagesFromGroupAllowed extends VkMethod<IsMessagesFromGroupAllowed.ResponseBody> {
     public IsMessagesFromGroupAllowed(String accessToken) {
-        super(VkMethods.get("messages.isMessagesFromGroupAllowed"), accessToken);
+        super(VkMethods.getUrl("messages.isMessagesFromGroupAllowed"), accessToken);
     }
 
     @Override
@@ -11,7 +11,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class MarkAsAnsweredConversation extends VkMethod<IntegerResponseBody> {
     public MarkAsAnsweredConversation(String accessToken) {
-        super(VkMethods.get("messages.markAsAnsweredConversation"), accessToken);
+        super(VkMethods.getUrl("messages.markAsAnsweredConversation"), accessToken);
     }
 
     @Override
@@ -11,7 +11,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class MarkAsImportantConversation extends VkMethod<IntegerResponseBody> {
     public MarkAsImportantConversation(String accessToken) {
-        super(VkMethods.get("messages.markAsImportantConversation"), accessToken);
+        super(VkMethods.getUrl("messages.markAsImportantConversation"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class MarkAsRead extends VkMethod<IntegerResponseBody> {
     public MarkAsRead(String accessToken) {
-        super(VkMethods.get("messages.markAsRead"), accessToken);
+        super(VkMethods.getUrl("messages.markAsRead"), accessToken);
     }
 
     @Override
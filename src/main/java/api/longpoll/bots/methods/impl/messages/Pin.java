@@ -14,7 +14,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class Pin extends VkMethod<Pin.ResponseBody> {
     public Pin(String accessToken) {
-        super(VkMethods.get("messages.pin"), accessToken);
+        super(VkMethods.getUrl("messages.pin"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class RemoveChatUser extends VkMethod<IntegerResponseBody> {
     public RemoveChatUser(String accessToken) {
-        super(VkMethods.get("messages.removeChatUser"), accessToken);
+        super(VkMethods.getUrl("messages.removeChatUser"), accessToken);
     }
 
     @Override
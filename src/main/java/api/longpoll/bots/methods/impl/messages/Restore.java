@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class Restore extends VkMethod<IntegerResponseBody> {
     public Restore(String accessToken) {
-        super(VkMethods.get("messages.restore"), accessToken);
+        super(VkMethods.getUrl("messages.restore"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import java.util.Arrays;
  */
 public class SearchConversations extends VkMethod<SearchConversations.ResponseBody> {
     public SearchConversations(String accessToken) {
-        super(VkMethods.get("messages.searchConversations"), accessToken);
+        super(VkMethods.getUrl("messages.searchConversations"), accessToken);
     }
 
     @Override
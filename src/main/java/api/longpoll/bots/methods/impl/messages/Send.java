@@ -1,5 +1,6 @@
 package api.longpoll.bots.methods.impl.messages;
 
+import api.longpoll.bots.adapters.VkGson;
 import api.longpoll.bots.adapters.deserializers.SendResponseBodyDeserializer;
 import api.longpoll.bots.exceptions.VkApiException;
 import api.longpoll.bots.helpers.attachments.UploadableDoc;
@@ -15,8 +16,8 @@ import api.longpoll.bots.model.objects.additional.Template;
 import api.longpoll.bots.model.objects.additional.UploadedFile;
 import api.longpoll.bots.model.response.GenericResponseBody;
 import api.longpoll.bots.utils.ParamUtils;
+import api.longpoll.bots.utils.RandomIds;
 import api.longpoll.bots.utils.VkMethods;
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.annotations.JsonAdapter;
@@ -29,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -39,11 +41,6 @@ import java.util.stream.Collectors;
  * @see <a href="https://vk.com/dev/messages.send">https://vk.com/dev/messages.send</a>
  */
 public class Send extends VkMethod<Send.ResponseBody> {
-    /**
-     * {@link Gson} instance.
-     */
-    private final Gson gson = new Gson();
-
     /**
      * {@code access_token}.
      */
@@ -55,9 +52,9 @@ public class Send extends VkMethod<Send.ResponseBody> {
     private final UploadableFilesSupplier uploadableFilesSupplier = new UploadableFilesSupplier();
 
     public Send(String accessToken) {
-        super(VkMethods.get("messages.send"), accessToken);
+        super(VkMethods.getUrl("messages.send"), accessToken);
         this.accessToken = accessToken;
-        addParam("random_id", (int) System.currentTimeMillis());
+        addParam("random_id", RandomIds.next());
     }
 
     @Override
@@ -78,7 +75,12 @@ public class Send extends VkMethod<Send.ResponseBody> {
     }
 
     @Override
-    public CompletableFuture<ResponseBody> executeAsync() {
+    protected boolean isBatchable() {
+        return super.isBatchable() && uploadableFilesSupplier.isEmpty();
+    }
+
+    @Override
+    public CompletableFuture<ResponseBody> executeAsync(Executor executor) {
         List<CompletableFuture<UploadedFile>> uploadedFiles = new ArrayList<>();
         for (UploadableFile messageFileUploader : uploadableFilesSupplier.get()) {
             uploadedFiles.add(messageFileUploader.uploadAsync());
@@ -89,7 +91,7 @@ public class Send extends VkMethod<Send.ResponseBody> {
                     if (!attachments.isEmpty()) {
                         setAttachment(attachments);
                     }
-                    return super.executeAsync();
+                    return super.executeAsync(executor);
                 });
     }
 
@@ -97,7 +99,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -106,7 +109,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -115,7 +119,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -124,7 +129,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadablePhoto(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo)
+                uploadUrl -> new UploadPhoto(uploadUrl, filename, photo),
+                getHttpClient()
         ));
         return this;
     }
@@ -133,7 +139,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -142,7 +149,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -151,7 +159,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, filename, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, filename, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -160,7 +169,8 @@ public class Send extends VkMethod<Send.ResponseBody> {
         uploadableFilesSupplier.addUploadbleFileFactory(peerId -> new UploadableDoc(
                 accessToken,
                 peerId,
-                uploadUrl -> new UploadDoc(uploadUrl, filename, doc)
+                uploadUrl -> new UploadDoc(uploadUrl, filename, doc),
+                getHttpClient()
         ));
         return this;
     }
@@ -258,15 +268,15 @@ public class Send extends VkMethod<Send.ResponseBody> {
     }
 
     public Send setTemplate(Template template) {
-        return addParam("template", gson.toJson(template));
+        return addParam("template", VkGson.get().toJson(template));
     }
 
     public Send setForward(Forward forward) {
-        return addParam("forward", gson.toJson(forward));
+        return addParam("forward", VkGson.get().toJson(forward));
     }
 
     public Send setPayload(JsonElement payload) {
-        return addParam("payload", gson.toJson(payload));
+        return addParam("payload", VkGson.get().toJson(payload));
     }
 
     @Override
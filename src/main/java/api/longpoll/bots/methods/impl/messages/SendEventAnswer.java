@@ -12,7 +12,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class SendEventAnswer extends VkMethod<IntegerResponseBody> {
     public SendEventAnswer(String accessToken) {
-        super(VkMethods.get("messages.sendMessageEventAnswer"), accessToken);
+        super(VkMethods.getUrl("messages.sendMessageEventAnswer"), accessToken);
     }
 
     @Override
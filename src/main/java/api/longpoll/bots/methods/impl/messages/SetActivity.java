@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class SetActivity extends VkMethod<IntegerResponseBody> {
     public SetActivity(String accessToken) {
-        super(VkMethods.get("messages.setActivity"), accessToken);
+        super(VkMethods.getUrl("messages.setActivity"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class SetChatPhoto extends VkMethod<SetChatPhoto.ResponseBody> {
     public SetChatPhoto(String accessToken) {
-        super(VkMethods.get("messages.setChatPhoto"), accessToken);
+        super(VkMethods.getUrl("messages.setChatPhoto"), accessToken);
     }
 
     @Override
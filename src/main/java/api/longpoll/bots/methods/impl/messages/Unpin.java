@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class Unpin extends VkMethod<IntegerResponseBody> {
     public Unpin(String accessToken) {
-        super(VkMethods.get("messages.unpin"), accessToken);
+        super(VkMethods.getUrl("messages.unpin"), accessToken);
     }
 
     @Override
@@ -4,6 +4,9 @@ import api.longpoll.bots.methods.impl.VkMethod;
 import api.longpoll.bots.model.response.GenericResponseBody;
 import api.longpoll.bots.utils.VkMethods;
 import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
 
 /**
  * Implements <b>execute</b> method.
@@ -14,7 +17,7 @@ import com.google.gson.JsonElement;
  */
 public class Execute extends VkMethod<Execute.ResponseBody> {
     public Execute(String accessToken) {
-        super(VkMethods.get("execute"), accessToken);
+        super(VkMethods.getUrl("execute"), accessToken);
     }
 
     @Override
@@ -39,5 +42,74 @@ public class Execute extends VkMethod<Execute.ResponseBody> {
      * Response to <b>execute</b> request.
      */
     public static class ResponseBody extends GenericResponseBody<JsonElement> {
+        /**
+         * Errors of methods called within <b>execute</b>. Results of such methods are {@code false}.
+         */
+        @SerializedName("execute_errors")
+        private List<ExecuteError> executeErrors;
+
+        public List<ExecuteError> getExecuteErrors() {
+            return executeErrors;
+        }
+
+        public void setExecuteErrors(List<ExecuteError> executeErrors) {
+            this.executeErrors = executeErrors;
+        }
+
+        /**
+         * Error of method called within <b>execute</b>.
+         */
+        public static class ExecuteError {
+            /**
+             * Method name.
+             */
+            @SerializedName("method")
+            private String method;
+
+            /**
+             * Error code.
+             */
+            @SerializedName("error_code")
+            private Integer errorCode;
+
+            /**
+             * Error description.
+             */
+            @SerializedName("error_msg")
+            private String errorMsg;
+
+            public String getMethod() {
+                return method;
+            }
+
+            public void setMethod(String method) {
+                this.method = method;
+            }
+
+            public Integer getErrorCode() {
+                return errorCode;
+            }
+
+            public void setErrorCode(Integer errorCode) {
+                this.errorCode = errorCode;
+            }
+
+            public String getErrorMsg() {
+                return errorMsg;
+            }
+
+            public void setErrorMsg(String errorMsg) {
+                this.errorMsg = errorMsg;
+            }
+
+            @Override
+            public String toString() {
+                return "ExecuteError{" +
+                        "method='" + method + '\'' +
+                        ", errorCode=" + errorCode +
+                        ", errorMsg='" + errorMsg + '\'' +
+                        '}';
+            }
+        }
     }
 }
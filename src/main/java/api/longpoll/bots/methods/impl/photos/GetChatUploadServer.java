@@ -12,7 +12,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class GetChatUploadServer extends VkMethod<GetChatUploadServer.ResponseBody> {
     public GetChatUploadServer(String accessToken) {
-        super(VkMethods.get("photos.getChatUploadServer"), accessToken);
+        super(VkMethods.getUrl("photos.getChatUploadServer"), accessToken);
     }
 
     @Override
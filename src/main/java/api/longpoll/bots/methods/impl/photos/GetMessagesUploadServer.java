@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetMessagesUploadServer extends VkMethod<GetMessagesUploadServer.ResponseBody> {
     public GetMessagesUploadServer(String accessToken) {
-        super(VkMethods.get("photos.getMessagesUploadServer"), accessToken);
+        super(VkMethods.getUrl("photos.getMessagesUploadServer"), accessToken);
     }
 
     @Override
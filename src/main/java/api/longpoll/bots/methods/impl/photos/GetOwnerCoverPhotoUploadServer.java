@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetOwnerCoverPhotoUploadServer extends VkMethod<GetOwnerCoverPhotoUploadServer.ResponseBody> {
     public GetOwnerCoverPhotoUploadServer(String accessToken) {
-        super(VkMethods.get("photos.getOwnerCoverPhotoUploadServer"), accessToken);
+        super(VkMethods.getUrl("photos.getOwnerCoverPhotoUploadServer"), accessToken);
     }
 
     @Override
@@ -17,7 +17,7 @@ import java.util.List;
  */
 public class SaveMessagesPhoto extends VkMethod<SaveMessagesPhoto.ResponseBody> {
     public SaveMessagesPhoto(String accessToken) {
-        super(VkMethods.get("photos.saveMessagesPhoto"), accessToken);
+        super(VkMethods.getUrl("photos.saveMessagesPhoto"), accessToken);
     }
 
     @Override
@@ -17,7 +17,7 @@ import java.util.List;
  */
 public class SaveOwnerCoverPhoto extends VkMethod<SaveOwnerCoverPhoto.ResponseBody> {
     public SaveOwnerCoverPhoto(String accessToken) {
-        super(VkMethods.get("photos.saveOwnerCoverPhoto"), accessToken);
+        super(VkMethods.getUrl("photos.saveOwnerCoverPhoto"), accessToken);
     }
 
     @Override
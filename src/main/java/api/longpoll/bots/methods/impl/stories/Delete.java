@@ -16,7 +16,7 @@ import java.util.Arrays;
  */
 public class Delete extends VkMethod<IntegerResponseBody> {
     public Delete(String accessToken) {
-        super(VkMethods.get("stories.delete"), accessToken);
+        super(VkMethods.getUrl("stories.delete"), accessToken);
     }
 
     @Override
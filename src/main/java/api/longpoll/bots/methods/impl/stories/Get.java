@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class Get extends VkMethod<Get.ResponseBody> {
     public Get(String accessToken) {
-        super(VkMethods.get("stories.get"), accessToken);
+        super(VkMethods.getUrl("stories.get"), accessToken);
     }
 
     @Override
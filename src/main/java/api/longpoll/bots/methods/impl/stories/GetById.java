@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetById extends VkMethod<GetById.ResponseBody> {
     public GetById(String accessToken) {
-        super(VkMethods.get("stories.getById"), accessToken);
+        super(VkMethods.getUrl("stories.getById"), accessToken);
     }
 
     @Override
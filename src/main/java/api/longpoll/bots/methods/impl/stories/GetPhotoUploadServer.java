@@ -18,7 +18,7 @@ import java.util.List;
  */
 public class GetPhotoUploadServer extends VkMethod<GetPhotoUploadServer.ResponseBody> {
     public GetPhotoUploadServer(String accessToken) {
-        super(VkMethods.get("stories.getPhotoUploadServer"), accessToken);
+        super(VkMethods.getUrl("stories.getPhotoUploadServer"), accessToken);
     }
 
     @Override
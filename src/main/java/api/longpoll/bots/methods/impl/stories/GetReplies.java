@@ -18,7 +18,7 @@ import java.util.Arrays;
  */
 public class GetReplies extends VkMethod<GetReplies.ResponseBody> {
     public GetReplies(String accessToken) {
-        super(VkMethods.get("stories.getReplies"), accessToken);
+        super(VkMethods.getUrl("stories.getReplies"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class GetStats extends VkMethod<GetStats.ResponseBody> {
     public GetStats(String accessToken) {
-        super(VkMethods.get("stories.getStats"), accessToken);
+        super(VkMethods.getUrl("stories.getStats"), accessToken);
     }
 
     @Override
@@ -15,7 +15,7 @@ import java.util.Arrays;
  */
 public class GetVideoUploadServer extends VkMethod<GetVideoUploadServer.ResponseBody> {
     public GetVideoUploadServer(String accessToken) {
-        super(VkMethods.get("stories.getVideoUploadServer"), accessToken);
+        super(VkMethods.getUrl("stories.getVideoUploadServer"), accessToken);
     }
 
     @Override
@@ -20,7 +20,7 @@ import java.util.Arrays;
  */
 public class GetViewers extends VkMethod<GetViewers.ResponseBody> {
     public GetViewers(String accessToken) {
-        super(VkMethods.get("stories.getViewers"), accessToken);
+        super(VkMethods.getUrl("stories.getViewers"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class HideAllReplies extends VkMethod<IntegerResponseBody> {
     public HideAllReplies(String accessToken) {
-        super(VkMethods.get("stories.hideAllReplies"), accessToken);
+        super(VkMethods.getUrl("stories.hideAllReplies"), accessToken);
     }
 
     @Override
@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class HideReply extends VkMethod<IntegerResponseBody> {
     public HideReply(String accessToken) {
-        super(VkMethods.get("stories.hideReply"), accessToken);
+        super(VkMethods.getUrl("stories.hideReply"), accessToken);
     }
 
     @Override
@@ -23,6 +23,11 @@ public abstract class UploadMethod<VkResponse> extends VkMethod<VkResponse> {
      */
     private final MultipartBody.Builder multipartBodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM);
 
+    /**
+     * Whether file can be sent again, i.e. it is not a stream.
+     */
+    private final boolean repeatable;
+
     public UploadMethod(String uploadUrl, String name, String filename, InputStream inputStream) {
         this(uploadUrl, name, filename, new InputStreamRequestBody(filename, inputStream));
     }
@@ -42,6 +47,12 @@ public abstract class UploadMethod<VkResponse> extends VkMethod<VkResponse> {
     private UploadMethod(String uploadUrl, String name, String filename, RequestBody file) {
         super(uploadUrl);
         this.multipartBodyBuilder.addFormDataPart(name, filename, file);
+        this.repeatable = !file.isOneShot();
+    }
+
+    @Override
+    protected boolean isRepeatable() {
+        return repeatable;
     }
 
     @Override
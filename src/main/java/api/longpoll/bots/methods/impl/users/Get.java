@@ -19,7 +19,7 @@ import java.util.List;
  */
 public class Get extends VkMethod<Get.ResponseBody> {
     public Get(String accessToken) {
-        super(VkMethods.get("users.get"), accessToken);
+        super(VkMethods.getUrl("users.get"), accessToken);
     }
 
     @Override
@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class CheckLink extends VkMethod<CheckLink.ResponseBody> {
     public CheckLink(String accessToken) {
-        super(VkMethods.get("utils.checkLink"), accessToken);
+        super(VkMethods.getUrl("utils.checkLink"), accessToken);
     }
 
     public CheckLink setUrl(String url) {
@@ -17,7 +17,7 @@ import java.util.List;
 public class GetLinkStats extends VkMethod<GetLinkStats.ResponseBody> {
 
     public GetLinkStats(String accessToken) {
-        super(VkMethods.get("utils.getLinkStats"), accessToken);
+        super(VkMethods.getUrl("utils.getLinkStats"), accessToken);
     }
 
     @Override
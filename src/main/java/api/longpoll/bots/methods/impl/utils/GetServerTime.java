@@ -13,7 +13,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class GetServerTime extends VkMethod<IntegerResponseBody> {
     public GetServerTime(String accessToken) {
-        super(VkMethods.get("utils.getServerTime"), accessToken);
+        super(VkMethods.getUrl("utils.getServerTime"), accessToken);
     }
 
     @Override
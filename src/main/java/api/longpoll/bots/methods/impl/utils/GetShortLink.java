@@ -15,7 +15,7 @@ import com.google.gson.annotations.SerializedName;
 public class GetShortLink extends VkMethod<GetShortLink.ResponseBody> {
 
     public GetShortLink(String accessToken) {
-        super(VkMethods.get("utils.getShortLink"), accessToken);
+        super(VkMethods.getUrl("utils.getShortLink"), accessToken);
     }
 
     public GetShortLink setUrl(String url) {
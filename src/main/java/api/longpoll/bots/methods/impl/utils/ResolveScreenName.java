@@ -14,7 +14,7 @@ import com.google.gson.annotations.SerializedName;
  */
 public class ResolveScreenName extends VkMethod<ResolveScreenName.ResponseBody> {
     public ResolveScreenName(String accessToken) {
-        super(VkMethods.get("utils.resolveScreenName"), accessToken);
+        super(VkMethods.getUrl("utils.resolveScreenName"), accessToken);
     }
 
     @Override
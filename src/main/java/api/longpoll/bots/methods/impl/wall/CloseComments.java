@@ -11,7 +11,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class CloseComments extends VkMethod<IntegerResponseBody> {
     public CloseComments(String accessToken) {
-        super(VkMethods.get("wall.closeComments"), accessToken);
+        super(VkMethods.getUrl("wall.closeComments"), accessToken);
     }
 
     @Override
@@ -20,7 +20,7 @@ import java.util.List;
 public class CreateComment extends VkMethod<CreateComment.ResponseBody> {
 
     public CreateComment(String accessToken) {
-        super(VkMethods.get("wall.createComment"), accessToken);
+        super(VkMethods.getUrl("wall.createComment"), accessToken);
     }
 
     @Override
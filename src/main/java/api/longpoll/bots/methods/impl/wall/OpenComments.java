@@ -11,7 +11,7 @@ import api.longpoll.bots.utils.VkMethods;
  */
 public class OpenComments extends VkMethod<IntegerResponseBody> {
     public OpenComments(String accessToken) {
-        super(VkMethods.get("wall.openComments"), accessToken);
+        super(VkMethods.getUrl("wall.openComments"), accessToken);
     }
 
     @Override
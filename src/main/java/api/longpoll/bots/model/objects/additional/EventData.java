@@ -1,6 +1,6 @@
 package api.longpoll.bots.model.objects.additional;
 
-import com.google.gson.Gson;
+import api.longpoll.bots.adapters.VkGson;
 import com.google.gson.annotations.SerializedName;
 
 /**
@@ -41,7 +41,7 @@ public abstract class EventData {
         }
 
         public String toJson() {
-            return new Gson().toJson(this);
+            return VkGson.get().toJson(this);
         }
 
         @Override
@@ -74,7 +74,7 @@ public abstract class EventData {
         }
 
         public String toJson() {
-            return new Gson().toJson(this);
+            return VkGson.get().toJson(this);
         }
 
         @Override
@@ -137,7 +137,7 @@ public abstract class EventData {
         }
 
         public String toJson() {
-            return new Gson().toJson(this);
+            return VkGson.get().toJson(this);
         }
 
         @Override
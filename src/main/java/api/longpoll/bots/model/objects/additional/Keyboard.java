@@ -1,7 +1,7 @@
 package api.longpoll.bots.model.objects.additional;
 
+import api.longpoll.bots.adapters.VkGson;
 import api.longpoll.bots.model.objects.additional.buttons.Button;
-import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.List;
@@ -33,7 +33,7 @@ public class Keyboard {
     }
 
     public String toJson() {
-        return new Gson().toJson(this);
+        return VkGson.get().toJson(this);
     }
 
     public Boolean getOneTime() {
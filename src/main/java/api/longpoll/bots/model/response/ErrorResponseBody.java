@@ -0,0 +1,137 @@
+package api.longpoll.bots.model.response;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * VK API error response like:
+ * <pre>
+ * {
+ *     error: {
+ *         error_code: 5,
+ *         error_msg: "User authorization failed: no access_token passed.",
+ *         request_params: [...]
+ *     }
+ * }
+ * </pre>
+ */
+public class ErrorResponseBody {
+    /**
+     * Error details.
+     */
+    @SerializedName("error")
+    private VkError error;
+
+    public VkError getError() {
+        return error;
+    }
+
+    public void setError(VkError error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorResponseBody{" +
+                "error=" + error +
+                '}';
+    }
+
+    /**
+     * Describes VK API error.
+     */
+    public static class VkError {
+        /**
+         * Error code.
+         */
+        @SerializedName("error_code")
+        private Integer errorCode;
+
+        /**
+         * Error description.
+         */
+        @SerializedName("error_msg")
+        private String errorMsg;
+
+        /**
+         * Parameters of the failed request.
+         */
+        @SerializedName("request_params")
+        private List<RequestParam> requestParams;
+
+        public Integer getErrorCode() {
+            return errorCode;
+        }
+
+        public void setErrorCode(Integer errorCode) {
+            this.errorCode = errorCode;
+        }
+
+        public String getErrorMsg() {
+            return errorMsg;
+        }
+
+        public void setErrorMsg(String errorMsg) {
+            this.errorMsg = errorMsg;
+        }
+
+        public List<RequestParam> getRequestParams() {
+            return requestParams;
+        }
+
+        public void setRequestParams(List<RequestParam> requestParams) {
+            this.requestParams = requestParams;
+        }
+
+        @Override
+        public String toString() {
+            return "VkError{" +
+                    "errorCode=" + errorCode +
+                    ", errorMsg='" + errorMsg + '\'' +
+                    ", requestParams=" + requestParams +
+                    '}';
+        }
+    }
+
+    /**
+     * Parameter of the failed request.
+     */
+    public static class RequestParam {
+        /**
+         * Parameter name.
+         */
+        @SerializedName("key")
+        private String key;
+
+        /**
+         * Parameter value.
+         */
+        @SerializedName("value")
+        private String value;
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "RequestParam{" +
+                    "key='" + key + '\'' +
+                    ", value='" + value + '\'' +
+                    '}';
+        }
+    }
+}
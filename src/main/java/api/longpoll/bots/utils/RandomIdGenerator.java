@@ -0,0 +1,19 @@
+package api.longpoll.bots.utils;
+
+/**
+ * Generates {@code random_id} of <b>messages.send</b>.
+ * <p>
+ * VK drops a message as duplicate if the same sender has already sent a message with the same {@code random_id} to
+ * the same peer, so generated values must not repeat. Implementations must be thread-safe.
+ *
+ * @see RandomIds
+ */
+@FunctionalInterface
+public interface RandomIdGenerator {
+    /**
+     * Generates the next {@code random_id}.
+     *
+     * @return {@code random_id}.
+     */
+    int nextRandomId();
+}
@@ -0,0 +1,94 @@
+package api.longpoll.bots.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Supplies {@code random_id} of <b>messages.send</b>.
+ * <p>
+ * By default, {@code random_id} is a node prefix followed by an atomic counter: the highest
+ * {@value RandomIds#NODE_BITS} bits of positive {@code int} hold node ID, and the other {@value RandomIds#COUNTER_BITS}
+ * bits hold counter, started at random value. IDs never repeat within a process until about 16 million messages are
+ * sent, and never repeat across processes with distinct node IDs. Node ID is taken from {@code vk.node.id} system
+ * property (0 to {@value RandomIds#MAX_NODE_ID}) or chosen at random. Zero is skipped, as VK does not check
+ * uniqueness of zero {@code random_id}. Generator may be replaced by
+ * {@link RandomIds#setGenerator(RandomIdGenerator)}, e.g. with {@link RandomIds#random()}.
+ * <p>
+ * {@code random_id} is set once when <b>messages.send</b> is created, so retries of the call send the same value and
+ * VK does not deliver message twice.
+ */
+public class RandomIds {
+    /**
+     * Number of bits of node ID.
+     */
+    public static final int NODE_BITS = 7;
+
+    /**
+     * Number of bits of counter.
+     */
+    public static final int COUNTER_BITS = 31 - NODE_BITS;
+
+    /**
+     * Max node ID.
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * Generator of {@code random_id}.
+     */
+    private static volatile RandomIdGenerator generator = counter(Integer.getInteger(
+            "vk.node.id",
+            ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1)
+    ));
+
+    /**
+     * Generates the next {@code random_id}.
+     *
+     * @return {@code random_id}.
+     */
+    public static int next() {
+        return generator.nextRandomId();
+    }
+
+    /**
+     * Sets generator of {@code random_id}. Affects messages created after the call.
+     *
+     * @param generator generator of {@code random_id}.
+     */
+    public static void setGenerator(RandomIdGenerator generator) {
+        RandomIds.generator = generator;
+    }
+
+    /**
+     * Creates generator of node prefix followed by atomic counter. Distinct nodes sending on behalf of the same
+     * community should use distinct node IDs.
+     *
+     * @param nodeId node ID, from 0 to {@value RandomIds#MAX_NODE_ID}.
+     * @return generator of {@code random_id}.
+     */
+    public static RandomIdGenerator counter(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        int prefix = nodeId << COUNTER_BITS;
+        int mask = (1 << COUNTER_BITS) - 1;
+        AtomicInteger counter = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+        return () -> {
+            int randomId;
+            do {
+                randomId = prefix | counter.getAndIncrement() & mask;
+            } while (randomId == 0);
+            return randomId;
+        };
+    }
+
+    /**
+     * Creates generator of random positive values. Needs no coordination between nodes, while values may repeat with
+     * small probability.
+     *
+     * @return generator of {@code random_id}.
+     */
+    public static RandomIdGenerator random() {
+        return () -> ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,141 @@
+package api.longpoll.bots.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Creates threads and executors backed by virtual threads when running on JDK 21+.
+ * <p>
+ * The library targets Java 8, so virtual threads are looked up reflectively and callers fall back to platform threads
+ * on older JVMs. Virtual threads may also be turned off by {@code -Dvk.virtualThreads=false}.
+ */
+public class VirtualThreads {
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} method or {@code null} if it is not available.
+     */
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    /**
+     * {@code Thread.ofVirtual()} method or {@code null} if it is not available.
+     */
+    private static final Method OF_VIRTUAL = isSupported() ? findMethod(Thread.class, "ofVirtual") : null;
+
+    /**
+     * {@code Thread.Builder.name(String)} method or {@code null} if it is not available.
+     */
+    private static final Method BUILDER_NAME = isSupported() ? findMethod(threadBuilderClass(), "name", String.class) : null;
+
+    /**
+     * {@code Thread.Builder.unstarted(Runnable)} method or {@code null} if it is not available.
+     */
+    private static final Method BUILDER_UNSTARTED = isSupported() ? findMethod(threadBuilderClass(), "unstarted", Runnable.class) : null;
+
+    /**
+     * Checks whether current JVM supports virtual threads and they are not turned off.
+     *
+     * @return {@code true} if virtual threads are supported, {@code false} otherwise.
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates {@link ExecutorService} that starts a new virtual thread for each task, or uses {@code fallback} if
+     * virtual threads are not supported.
+     *
+     * @param fallback supplies {@link ExecutorService} for JVMs without virtual threads.
+     * @return {@link ExecutorService}.
+     */
+    public static ExecutorService newExecutorOrElse(Supplier<ExecutorService> fallback) {
+        return isSupported() ? newVirtualThreadPerTaskExecutor() : fallback.get();
+    }
+
+    /**
+     * Creates unstarted virtual thread, or daemon platform thread if virtual threads are not supported.
+     *
+     * @param name thread name.
+     * @param task task to run.
+     * @return unstarted thread.
+     */
+    public static Thread newThread(String name, Runnable task) {
+        if (OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_UNSTARTED != null) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new UnsupportedOperationException("Failed to create virtual thread.", e);
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Creates {@link ExecutorService} that starts a new virtual thread for each task.
+     *
+     * @return {@link ExecutorService}.
+     * @throws UnsupportedOperationException if virtual threads are not supported.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by current JVM.");
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread executor.", e);
+        }
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} and checks that it is usable, i.e. virtual threads
+     * are neither a disabled preview feature nor turned off by {@code vk.virtualThreads} system property.
+     *
+     * @return {@code Executors.newVirtualThreadPerTaskExecutor()} method or {@code null} if it is not available.
+     */
+    private static Method findNewVirtualThreadPerTaskExecutor() {
+        if (!Boolean.parseBoolean(System.getProperty("vk.virtualThreads", "true"))) {
+            return null;
+        }
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets {@code Thread.Builder} interface.
+     *
+     * @return {@code Thread.Builder} interface or {@code null} if it is not available.
+     */
+    private static Class<?> threadBuilderClass() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up public method.
+     *
+     * @param type           class or interface declaring the method.
+     * @param name           method name.
+     * @param parameterTypes method parameter types.
+     * @return method or {@code null} if it is not available.
+     */
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type != null ? type.getMethod(name, parameterTypes) : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
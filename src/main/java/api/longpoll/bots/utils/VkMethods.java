@@ -1,22 +1,42 @@
 package api.longpoll.bots.utils;
 
+import okhttp3.HttpUrl;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Gets VK method URLs.
+ * <p>
+ * Method URLs are resolved once against API base URL, {@value VkMethods#DEFAULT_BASE_URL} by default. Base URL may be
+ * changed by {@code vk.api.url} system property or {@link VkMethods#setBaseUrl(String)}, e.g. to send requests via
+ * proxy or to a local stand-in of VK API.
  */
 public class VkMethods {
+    /**
+     * Default VK API base URL.
+     */
+    public static final String DEFAULT_BASE_URL = "https://api.vk.com/method/";
+
     /**
      * Path to VK methods list.
      */
     private static final String VK_METHODS_PATH = "/vk/vk_methods.properties";
 
     /**
-     * {@link Properties} object.
+     * Names of VK methods by key.
      */
-    private static final Properties PROPERTIES = new Properties();
+    private static final Map<String, String> METHOD_NAMES = loadMethodNames();
+
+    /**
+     * Resolved VK method URLs by key.
+     */
+    private static volatile Map<String, HttpUrl> urls = resolve(System.getProperty("vk.api.url", DEFAULT_BASE_URL));
 
     /**
      * Gets VK method URL by key.
@@ -25,13 +45,65 @@ public class VkMethods {
      * @return VK method URL.
      */
     public static String get(String key) {
-        if (PROPERTIES.isEmpty()) {
-            try (InputStream inputStream = VkMethods.class.getResourceAsStream(VK_METHODS_PATH)) {
-                PROPERTIES.load(inputStream);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+        HttpUrl url = urls.get(key);
+        return url != null ? url.toString() : null;
+    }
+
+    /**
+     * Gets VK method URL by key.
+     *
+     * @param key method key.
+     * @return VK method URL.
+     * @throws IllegalArgumentException if there is no such method.
+     */
+    public static HttpUrl getUrl(String key) {
+        HttpUrl url = urls.get(key);
+        if (url == null) {
+            throw new IllegalArgumentException("Unknown VK method: " + key);
+        }
+        return url;
+    }
+
+    /**
+     * Sets VK API base URL. Affects methods created after the call.
+     *
+     * @param baseUrl VK API base URL, e.g. {@code http://localhost:8080/method/}.
+     */
+    public static void setBaseUrl(String baseUrl) {
+        urls = resolve(baseUrl);
+    }
+
+    /**
+     * Resolves VK method URLs against base URL.
+     *
+     * @param baseUrl VK API base URL.
+     * @return VK method URLs by key.
+     */
+    private static Map<String, HttpUrl> resolve(String baseUrl) {
+        HttpUrl base = HttpUrl.get(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        Map<String, HttpUrl> urls = new HashMap<>();
+        METHOD_NAMES.forEach((key, name) -> urls.put(key, base.resolve(name)));
+        return Collections.unmodifiableMap(urls);
+    }
+
+    /**
+     * Loads names of VK methods.
+     *
+     * @return names of VK methods by key.
+     */
+    private static Map<String, String> loadMethodNames() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = VkMethods.class.getResourceAsStream(VK_METHODS_PATH)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, String> methodNames = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String url = properties.getProperty(key);
+            methodNames.put(key, url.startsWith(DEFAULT_BASE_URL) ? url.substring(DEFAULT_BASE_URL.length()) : url);
         }
-        return PROPERTIES.getProperty(key);
+        return methodNames;
     }
 }
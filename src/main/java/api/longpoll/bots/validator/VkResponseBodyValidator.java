@@ -1,22 +1,20 @@
 package api.longpoll.bots.validator;
 
-import com.google.gson.Gson;
+import api.longpoll.bots.adapters.VkGson;
 import com.google.gson.JsonElement;
 
 import java.util.function.Predicate;
 
 /**
  * Validates Vk HTTP response body.
+ *
+ * @deprecated VK errors are detected while response is deserialized, see {@link api.longpoll.bots.exceptions.VkResponseException}.
  */
+@Deprecated
 public class VkResponseBodyValidator implements Predicate<String> {
-    /**
-     * {@link Gson} object.
-     */
-    private final Gson gson = new Gson();
-
     @Override
     public boolean test(String responseBody) {
-        JsonElement jsonElement = gson.fromJson(responseBody, JsonElement.class);
+        JsonElement jsonElement = VkGson.get().fromJson(responseBody, JsonElement.class);
         return !jsonElement.isJsonObject()
                 || !jsonElement.getAsJsonObject().has("error")
                 && !jsonElement.getAsJsonObject().has("failed");
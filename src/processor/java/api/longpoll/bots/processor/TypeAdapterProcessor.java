@@ -0,0 +1,666 @@
+package api.longpoll.bots.processor;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates streaming Gson {@code TypeAdapter}s for model classes at compile time.
+ * <p>
+ * For each eligible class {@code Foo} a {@code FooTypeAdapter} is generated next to it. The adapter reads JSON fields
+ * by their {@code @SerializedName} names and passes values to setters, so no reflective field access happens on
+ * deserialization. Only setters which plainly assign the field are used, so generated adapters fill objects exactly as
+ * reflective adapters do. Serialization is delegated to the reflective adapter. {@code GeneratedTypeAdapterFactory} listing all
+ * generated adapters is created in {@code api.longpoll.bots.adapters} package in the same round as the adapters, so
+ * it is compiled along with them.
+ * <p>
+ * A class is eligible if it is a non-abstract, non-generic class with no-arg constructor, has no class-level
+ * {@code @JsonAdapter}, and each of its serializable fields (including inherited ones) has a setter declared next to
+ * the field whose body is {@code this.foo = foo;}, optionally followed by {@code return this;}. Other classes are left
+ * to reflective adapters. Processed packages are set by {@code vk.typeadapters.package} option, which defaults to
+ * {@code api.longpoll.bots.model}.
+ */
+public class TypeAdapterProcessor extends AbstractProcessor {
+    /**
+     * Option to set root package of processed classes.
+     */
+    private static final String PACKAGE_OPTION = "vk.typeadapters.package";
+
+    /**
+     * Default root package of processed classes.
+     */
+    private static final String DEFAULT_PACKAGE = "api.longpoll.bots.model";
+
+    /**
+     * Package of generated factory.
+     */
+    private static final String FACTORY_PACKAGE = "api.longpoll.bots.adapters";
+
+    /**
+     * Simple name of generated factory.
+     */
+    private static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+    private static final String JSON_DESERIALIZER = "com.google.gson.JsonDeserializer";
+
+    /**
+     * Generated adapters: fully qualified model class name to fully qualified adapter name.
+     */
+    private final Map<String, String> generated = new LinkedHashMap<>();
+
+    /**
+     * Whether factory is already written.
+     */
+    private boolean factoryWritten;
+
+    /**
+     * Syntax trees of compiled sources or {@code null} if compiler does not provide them.
+     */
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        try {
+            trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Syntax trees are not available, no adapters are generated");
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(PACKAGE_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            return false;
+        }
+
+        int generatedBefore = generated.size();
+        String rootPackage = processingEnv.getOptions().getOrDefault(PACKAGE_OPTION, DEFAULT_PACKAGE);
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            String packageName = getPackage(typeElement).getQualifiedName().toString();
+            if (packageName.equals(rootPackage) || packageName.startsWith(rootPackage + ".")) {
+                processType(typeElement);
+            }
+        }
+        if (generated.size() > generatedBefore) {
+            if (factoryWritten) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Adapters generated after " + FACTORY_NAME + " was written: " + generated.size());
+            } else {
+                writeFactory();
+                factoryWritten = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates adapters of class and its nested classes.
+     *
+     * @param typeElement class.
+     */
+    private void processType(TypeElement typeElement) {
+        List<Field> fields = getFields(typeElement);
+        if (fields != null) {
+            writeAdapter(typeElement, fields);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            if (nested.getModifiers().contains(Modifier.STATIC) || nested.getKind() != ElementKind.CLASS) {
+                processType(nested);
+            }
+        }
+    }
+
+    /**
+     * Gets serializable fields of class.
+     *
+     * @param typeElement class.
+     * @return serializable fields or {@code null} if class is not eligible.
+     */
+    private List<Field> getFields(TypeElement typeElement) {
+        Set<Modifier> modifiers = typeElement.getModifiers();
+        if (typeElement.getKind() != ElementKind.CLASS
+                || modifiers.contains(Modifier.ABSTRACT)
+                || modifiers.contains(Modifier.PRIVATE)
+                || typeElement.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)
+                || !typeElement.getTypeParameters().isEmpty()
+                || findAnnotation(typeElement, JSON_ADAPTER) != null
+                || !hasNoArgConstructor(typeElement)) {
+            return null;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        DeclaredType declaredType = (DeclaredType) typeElement.asType();
+        List<Field> fields = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (TypeElement current = typeElement; current != null; current = getSuperclass(current)) {
+            for (VariableElement variable : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (variable.getModifiers().contains(Modifier.STATIC) || variable.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                TypeMirror type = types.asMemberOf(declaredType, variable);
+                if (containsTypeVariable(type)) {
+                    return null;
+                }
+                ExecutableElement setter = findSetter(typeElement, variable, type);
+                if (setter == null || !isPlainSetter(setter, variable)) {
+                    return null;
+                }
+                Field field = new Field(variable, type, setter);
+                for (String name : field.names) {
+                    if (!names.add(name)) {
+                        return null;
+                    }
+                }
+                TypeElement deserializer = field.deserializer;
+                if (deserializer != null && !isJsonDeserializer(deserializer)) {
+                    return null;
+                }
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Writes adapter of class.
+     *
+     * @param typeElement class.
+     * @param fields      serializable fields of class.
+     */
+    private void writeAdapter(TypeElement typeElement, List<Field> fields) {
+        PackageElement packageElement = getPackage(typeElement);
+        String packageName = packageElement.getQualifiedName().toString();
+        String className = typeElement.getQualifiedName().toString();
+        String adapterName = getFlatName(typeElement) + "TypeAdapter";
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(packageName + "." + adapterName, typeElement).openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Streaming adapter of {@link " + className + "}.");
+            out.println(" * Generated by {@code " + getClass().getName() + "}, do not edit.");
+            out.println(" */");
+            out.println("public final class " + adapterName + " extends com.google.gson.TypeAdapter<" + className + "> {");
+            out.println("    private final com.google.gson.Gson gson;");
+            out.println("    private final com.google.gson.TypeAdapterFactory skipPast;");
+            out.println("    private volatile com.google.gson.TypeAdapter<" + className + "> delegate;");
+            for (Field field : fields) {
+                out.println("    private final com.google.gson.TypeAdapter<" + boxed(field.type) + "> " + field.adapterName() + ";");
+            }
+            out.println();
+            out.println("    public " + adapterName + "(com.google.gson.Gson gson, com.google.gson.TypeAdapterFactory skipPast) {");
+            out.println("        this.gson = gson;");
+            out.println("        this.skipPast = skipPast;");
+            for (Field field : fields) {
+                out.println("        this." + field.adapterName() + " = " + newFieldAdapter(field) + ";");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + className + " read(com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+            out.println("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+            out.println("            in.nextNull();");
+            out.println("            return null;");
+            out.println("        }");
+            out.println("        " + className + " object = new " + className + "();");
+            out.println("        in.beginObject();");
+            out.println("        while (in.hasNext()) {");
+            out.println("            switch (in.nextName()) {");
+            for (Field field : fields) {
+                for (String name : field.names) {
+                    out.println("                case " + processingEnv.getElementUtils().getConstantExpression(name) + ":");
+                }
+                if (field.type.getKind().isPrimitive()) {
+                    String value = field.variable.getSimpleName() + "Value";
+                    out.println("                {");
+                    out.println("                    " + boxed(field.type) + " " + value + " = " + field.adapterName() + ".read(in);");
+                    out.println("                    if (" + value + " != null) {");
+                    out.println("                        object." + field.setter.getSimpleName() + "(" + value + ");");
+                    out.println("                    }");
+                    out.println("                    break;");
+                    out.println("                }");
+                } else {
+                    out.println("                    object." + field.setter.getSimpleName() + "(" + field.adapterName() + ".read(in));");
+                    out.println("                    break;");
+                }
+            }
+            out.println("                default:");
+            out.println("                    in.skipValue();");
+            out.println("            }");
+            out.println("        }");
+            out.println("        in.endObject();");
+            out.println("        return object;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void write(com.google.gson.stream.JsonWriter out, " + className + " value) throws java.io.IOException {");
+            out.println("        if (delegate == null) {");
+            out.println("            delegate = gson.getDelegateAdapter(skipPast, com.google.gson.reflect.TypeToken.get(" + className + ".class));");
+            out.println("        }");
+            out.println("        delegate.write(out, value);");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + adapterName + ": " + e, typeElement);
+            return;
+        }
+        generated.put(className, packageName + "." + adapterName);
+    }
+
+    /**
+     * Writes factory of all generated adapters.
+     */
+    private void writeFactory() {
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(FACTORY_PACKAGE + "." + FACTORY_NAME).openWriter())) {
+            out.println("package " + FACTORY_PACKAGE + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Creates generated streaming adapters of model classes.");
+            out.println(" * Generated by {@code " + getClass().getName() + "}, do not edit.");
+            out.println(" */");
+            out.println("public final class " + FACTORY_NAME + " implements com.google.gson.TypeAdapterFactory {");
+            out.println("    private static final java.util.Map<Class<?>, java.util.function.BiFunction<com.google.gson.Gson, com.google.gson.TypeAdapterFactory, com.google.gson.TypeAdapter<?>>> ADAPTERS = new java.util.HashMap<>();");
+            out.println();
+            out.println("    static {");
+            for (Map.Entry<String, String> entry : generated.entrySet()) {
+                out.println("        ADAPTERS.put(" + entry.getKey() + ".class, " + entry.getValue() + "::new);");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    @SuppressWarnings(\"unchecked\")");
+            out.println("    public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, com.google.gson.reflect.TypeToken<T> typeToken) {");
+            out.println("        java.util.function.BiFunction<com.google.gson.Gson, com.google.gson.TypeAdapterFactory, com.google.gson.TypeAdapter<?>> constructor = ADAPTERS.get(typeToken.getRawType());");
+            out.println("        return constructor != null ? (com.google.gson.TypeAdapter<T>) constructor.apply(gson, this) : null;");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + FACTORY_NAME + ": " + e);
+        }
+    }
+
+    /**
+     * Gets expression creating adapter of field.
+     *
+     * @param field field.
+     * @return Java expression.
+     */
+    private String newFieldAdapter(Field field) {
+        if (field.deserializer != null) {
+            return "new api.longpoll.bots.adapters.JsonDeserializerTypeAdapter<>(gson, new "
+                    + field.deserializer.getQualifiedName() + "(), " + typeExpression(field.type) + ")";
+        }
+        if (field.type.getKind() == TypeKind.DECLARED && !((DeclaredType) field.type).getTypeArguments().isEmpty()) {
+            return "gson.getAdapter(new com.google.gson.reflect.TypeToken<" + field.type + ">() {})";
+        }
+        return "gson.getAdapter(" + rawType(field.type) + ".class)";
+    }
+
+    /**
+     * Gets expression evaluating to {@link java.lang.reflect.Type} of field.
+     *
+     * @param type field type.
+     * @return Java expression.
+     */
+    private String typeExpression(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            return "new com.google.gson.reflect.TypeToken<" + type + ">() {}.getType()";
+        }
+        return boxed(type) + ".class";
+    }
+
+    /**
+     * Gets raw type name.
+     *
+     * @param type type.
+     * @return raw type name.
+     */
+    private String rawType(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Gets boxed type name if type is primitive.
+     *
+     * @param type type.
+     * @return boxed type name or type name itself.
+     */
+    private String boxed(TypeMirror type) {
+        return type.getKind().isPrimitive()
+                ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                : type.toString();
+    }
+
+    /**
+     * Finds setter of field: non-private method {@code setFoo} (or {@code setFoo} for {@code isFoo} field) with one
+     * parameter the field value is assignable to.
+     *
+     * @param typeElement class.
+     * @param variable    field.
+     * @param type        field type.
+     * @return setter or {@code null} if not found.
+     */
+    private ExecutableElement findSetter(TypeElement typeElement, VariableElement variable, TypeMirror type) {
+        String fieldName = variable.getSimpleName().toString();
+        Set<String> setterNames = new LinkedHashSet<>();
+        setterNames.add("set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1));
+        if (fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2))) {
+            setterNames.add("set" + fieldName.substring(2));
+        }
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(typeElement))) {
+            if (setterNames.contains(method.getSimpleName().toString())
+                    && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isAssignable(type, ((ExecutableType) types.asMemberOf((DeclaredType) typeElement.asType(), method)).getParameterTypes().get(0))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether setter only assigns its parameter to field: setter is declared in the class of the field and its
+     * body is {@code this.foo = value;} or {@code foo = value;}, optionally followed by {@code return this;}.
+     *
+     * @param setter   setter.
+     * @param variable field.
+     * @return {@code true} if setter is a plain assignment.
+     */
+    private boolean isPlainSetter(ExecutableElement setter, VariableElement variable) {
+        if (trees == null || !setter.getEnclosingElement().equals(variable.getEnclosingElement())) {
+            return false;
+        }
+        MethodTree method = trees.getTree(setter);
+        if (method == null || method.getBody() == null) {
+            return false;
+        }
+        List<? extends StatementTree> statements = method.getBody().getStatements();
+        if (statements.isEmpty() || statements.size() > 2) {
+            return false;
+        }
+        if (statements.size() == 2) {
+            StatementTree last = statements.get(1);
+            if (!(last instanceof ReturnTree) || !isThis(((ReturnTree) last).getExpression())) {
+                return false;
+            }
+        }
+        if (!(statements.get(0) instanceof ExpressionStatementTree)) {
+            return false;
+        }
+        ExpressionTree expression = ((ExpressionStatementTree) statements.get(0)).getExpression();
+        if (!(expression instanceof AssignmentTree)) {
+            return false;
+        }
+        AssignmentTree assignment = (AssignmentTree) expression;
+        ExpressionTree target = assignment.getVariable();
+        ExpressionTree value = assignment.getExpression();
+        Name parameterName = setter.getParameters().get(0).getSimpleName();
+        boolean assignsField = target instanceof IdentifierTree
+                ? ((IdentifierTree) target).getName().contentEquals(variable.getSimpleName()) && !parameterName.contentEquals(variable.getSimpleName())
+                : target instanceof MemberSelectTree
+                && isThis(((MemberSelectTree) target).getExpression())
+                && ((MemberSelectTree) target).getIdentifier().contentEquals(variable.getSimpleName());
+        return assignsField
+                && value instanceof IdentifierTree
+                && ((IdentifierTree) value).getName().contentEquals(parameterName);
+    }
+
+    /**
+     * Checks whether expression is {@code this}.
+     *
+     * @param expression expression.
+     * @return {@code true} if expression is {@code this}.
+     */
+    private static boolean isThis(ExpressionTree expression) {
+        return expression instanceof IdentifierTree && ((IdentifierTree) expression).getName().contentEquals("this");
+    }
+
+    /**
+     * Checks whether class has non-private no-arg constructor.
+     *
+     * @param typeElement class.
+     * @return {@code true} if class has non-private no-arg constructor.
+     */
+    private boolean hasNoArgConstructor(TypeElement typeElement) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether type contains type variables or wildcards.
+     *
+     * @param type type.
+     * @return {@code true} if type contains type variables or wildcards.
+     */
+    private boolean containsTypeVariable(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+            case WILDCARD:
+                return true;
+
+            case ARRAY:
+                return containsTypeVariable(((ArrayType) type).getComponentType());
+
+            case DECLARED:
+                for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+                    if (containsTypeVariable(typeArgument)) {
+                        return true;
+                    }
+                }
+                return false;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether class implements {@code JsonDeserializer}.
+     *
+     * @param typeElement class.
+     * @return {@code true} if class implements {@code JsonDeserializer}.
+     */
+    private boolean isJsonDeserializer(TypeElement typeElement) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement jsonDeserializer = processingEnv.getElementUtils().getTypeElement(JSON_DESERIALIZER);
+        return jsonDeserializer != null && types.isAssignable(types.erasure(typeElement.asType()), types.erasure(jsonDeserializer.asType()));
+    }
+
+    /**
+     * Gets superclass of class.
+     *
+     * @param typeElement class.
+     * @return superclass or {@code null} if superclass is {@link Object}.
+     */
+    private TypeElement getSuperclass(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superElement.getQualifiedName().contentEquals(Object.class.getName()) ? null : superElement;
+    }
+
+    /**
+     * Gets package of class.
+     *
+     * @param element class.
+     * @return package of class.
+     */
+    private PackageElement getPackage(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    /**
+     * Gets class name without package, nested class names joined by {@code _}.
+     *
+     * @param typeElement class.
+     * @return flat class name.
+     */
+    private String getFlatName(TypeElement typeElement) {
+        Element enclosing = typeElement.getEnclosingElement();
+        return enclosing instanceof TypeElement
+                ? getFlatName((TypeElement) enclosing) + "_" + typeElement.getSimpleName()
+                : typeElement.getSimpleName().toString();
+    }
+
+    /**
+     * Finds annotation of element by annotation class name.
+     *
+     * @param element        annotated element.
+     * @param annotationName annotation class name.
+     * @return annotation or {@code null} if not found.
+     */
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets annotation attribute value.
+     *
+     * @param annotation annotation.
+     * @param name       attribute name.
+     * @return attribute value or {@code null} if not set.
+     */
+    private static Object getValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Serializable field.
+     */
+    private static class Field {
+        /**
+         * Field element.
+         */
+        private final VariableElement variable;
+
+        /**
+         * Field type as member of processed class.
+         */
+        private final TypeMirror type;
+
+        /**
+         * Field setter.
+         */
+        private final ExecutableElement setter;
+
+        /**
+         * JSON names: serialized name followed by alternates.
+         */
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * Deserializer set by field-level {@code @JsonAdapter} or {@code null}.
+         */
+        private final TypeElement deserializer;
+
+        private Field(VariableElement variable, TypeMirror type, ExecutableElement setter) {
+            this.variable = variable;
+            this.type = type;
+            this.setter = setter;
+
+            AnnotationMirror serializedName = findAnnotation(variable, SERIALIZED_NAME);
+            if (serializedName != null) {
+                names.add((String) getValue(serializedName, "value"));
+                Object alternate = getValue(serializedName, "alternate");
+                if (alternate != null) {
+                    for (Object value : (List<?>) alternate) {
+                        names.add((String) ((AnnotationValue) value).getValue());
+                    }
+                }
+            } else {
+                names.add(variable.getSimpleName().toString());
+            }
+
+            AnnotationMirror jsonAdapter = findAnnotation(variable, JSON_ADAPTER);
+            this.deserializer = jsonAdapter != null
+                    ? (TypeElement) ((DeclaredType) getValue(jsonAdapter, "value")).asElement()
+                    : null;
+        }
+
+        /**
+         * Gets name of generated adapter field.
+         *
+         * @return name of generated adapter field.
+         */
+        private String adapterName() {
+            return variable.getSimpleName() + "Adapter";
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package api.longpoll.bots;
+
+import api.longpoll.bots.checkpoint.InMemoryTsStore;
+import api.longpoll.bots.dispatch.ConcurrentUpdateDispatcher;
+import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.mock.MockVkServer;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPollBotTest {
+    private static final String MESSAGE_NEW = "{\"type\":\"message_new\",\"object\":{\"message\":{\"date\":1593092311," +
+            "\"from_id\":111,\"id\":0,\"out\":0,\"peer_id\":222,\"text\":\"ping\",\"conversation_message_id\":1}}," +
+            "\"group_id\":333,\"event_id\":\"aaa\"}";
+
+    @Test
+    void repliesToMessagesAndRenewsExpiredKey() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchSize(2)
+                    .setBatchLimit(5)
+                    .setMaxWait(Duration.ofMillis(100))
+                    .failLongPoll(2);
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 10);
+
+            poll(bot);
+
+            List<Map<String, String>> sentMessages = server.getSentMessages();
+            assertEquals(10, sentMessages.size());
+            assertEquals("222", sentMessages.get(0).get("peer_id"));
+            assertEquals("pong", sentMessages.get(0).get("message"));
+            assertEquals("key2", server.getLongPollRequests().get(server.getLongPollRequests().size() - 1).get("key"));
+            assertTrue(bot.errors.isEmpty());
+        }
+    }
+
+    @Test
+    void recoversByFailedCode() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchLimit(1)
+                    .setMaxWait(Duration.ofMillis(100))
+                    .failLongPoll(1)
+                    .failLongPoll(2)
+                    .failLongPoll(3);
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 1);
+
+            poll(bot);
+
+            List<Map<String, String>> requests = server.getLongPollRequests();
+            assertEquals("key1", requests.get(1).get("key"));
+            assertEquals("key2", requests.get(2).get("key"));
+            assertEquals("key3", requests.get(3).get("key"));
+            assertEquals(3, server.getCallCount("execute"));
+            assertEquals(1, server.getSentMessages().size());
+        }
+    }
+
+    @Test
+    void prefetchesNextBatchWhileHandling() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchLimit(3)
+                    .setMaxWait(Duration.ofSeconds(1));
+            List<Boolean> prefetched = new CopyOnWriteArrayList<>();
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 3) {
+                @Override
+                public void onMessageNew(MessageNew messageNew) {
+                    // the n-th batch is received by the n-th request, so the next one is prefetched by request n + 1
+                    prefetched.add(awaitRequests(server, prefetched.size() + 2));
+                    super.onMessageNew(messageNew);
+                }
+            };
+            bot.setWait(5);
+            bot.setPrefetch(true);
+
+            poll(bot);
+
+            assertEquals(Arrays.asList(true, true, true), prefetched);
+            List<Map<String, String>> requests = server.getLongPollRequests();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(String.valueOf(i + 1), requests.get(i).get("ts"));
+                assertEquals("5", requests.get(i).get("wait"));
+            }
+            assertEquals(3, server.getSentMessages().size());
+        }
+    }
+
+    @Test
+    void resumesFromSavedTs() throws InterruptedException, IOException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setTs(100)
+                    .setBatchLimit(2)
+                    .setMaxWait(Duration.ofMillis(100));
+            InMemoryTsStore tsStore = new InMemoryTsStore();
+            tsStore.save(90);
+            AtomicInteger initialized = new AtomicInteger();
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 2) {
+                @Override
+                public void initialize() throws VkApiException {
+                    initialized.incrementAndGet();
+                    super.initialize();
+                }
+            };
+            bot.setTsStore(tsStore);
+
+            poll(bot);
+
+            assertEquals(1, initialized.get());
+            assertEquals("90", server.getLongPollRequests().get(0).get("ts"));
+            assertEquals(102, tsStore.load());
+        }
+    }
+
+    @Test
+    void savesTsAfterFailedBatch() throws InterruptedException, IOException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setTs(100)
+                    .setBatchLimit(3)
+                    .setMaxWait(Duration.ofMillis(100));
+            InMemoryTsStore tsStore = new InMemoryTsStore();
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 2);
+            bot.setTsStore(tsStore);
+            AtomicInteger batches = new AtomicInteger();
+            bot.setUpdateDispatcher(updates -> {
+                CompletableFuture<Void> handled = new CompletableFuture<>();
+                if (batches.getAndIncrement() == 0) {
+                    handled.completeExceptionally(new InterruptedException());
+                } else {
+                    bot.handle(updates);
+                    handled.complete(null);
+                }
+                return handled;
+            });
+
+            poll(bot);
+
+            assertEquals(2, server.getSentMessages().size());
+            assertEquals(103, tsStore.load());
+        }
+    }
+
+    @Test
+    void ignoresTsAheadOfServer() throws InterruptedException, IOException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setTs(100)
+                    .setBatchLimit(1)
+                    .setMaxWait(Duration.ofMillis(100));
+            InMemoryTsStore tsStore = new InMemoryTsStore();
+            tsStore.save(500);
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 1);
+            bot.setTsStore(tsStore);
+
+            poll(bot);
+
+            assertEquals("100", server.getLongPollRequests().get(0).get("ts"));
+        }
+    }
+
+    @Test
+    void pollsAndHandlesOnVirtualThreadsIfSupported() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchSize(3)
+                    .setBatchLimit(1)
+                    .setMaxWait(Duration.ofMillis(100));
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 3);
+            ConcurrentUpdateDispatcher dispatcher = new ConcurrentUpdateDispatcher(bot::handle, 100);
+            bot.setUpdateDispatcher(dispatcher);
+
+            try {
+                bot.startPollingAsync().get(10, TimeUnit.SECONDS);
+            } finally {
+                dispatcher.close();
+            }
+
+            assertEquals(3, server.getSentMessages().size());
+        }
+    }
+
+    @Test
+    void shutsDownWithoutWaitingForLongPoll() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchSize(2)
+                    .setBatchLimit(1);
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), Integer.MAX_VALUE) {
+                @Override
+                public void onMessageNew(MessageNew messageNew) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    super.onMessageNew(messageNew);
+                }
+            };
+            InMemoryTsStore tsStore = new InMemoryTsStore();
+            bot.setTsStore(tsStore);
+            bot.setUpdateDispatcher(new ConcurrentUpdateDispatcher(bot::handle, 1, 10));
+            CompletableFuture<Void> stopped = bot.startPollingAsync();
+            assertTrue(awaitRequests(server, 2));
+
+            long start = System.nanoTime();
+            assertTrue(bot.shutdown(Duration.ofSeconds(5)));
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertTrue(stopped.isDone());
+            assertEquals(2, server.getSentMessages().size());
+            assertEquals(2, tsStore.load());
+        }
+    }
+
+    @Test
+    void receivesInjectedErrors() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(MESSAGE_NEW)
+                    .setBatchLimit(3)
+                    .setMaxWait(Duration.ofMillis(100))
+                    .injectError("messages.send", 9)
+                    .injectError("messages.send", 6);
+            ReplyingBot bot = new ReplyingBot(server.newHttpClient(), 3);
+
+            poll(bot);
+
+            assertEquals(1, server.getSentMessages().size());
+            assertEquals(9, bot.errors.get(0));
+            assertEquals(6, bot.errors.get(1));
+        }
+    }
+
+    private static boolean awaitRequests(MockVkServer server, int requests) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getLongPollRequests().size() < requests) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void poll(LongPollBot bot) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            try {
+                bot.startPolling();
+            } catch (VkApiException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(10000);
+        bot.stopPolling();
+        assertFalse(thread.isAlive());
+    }
+
+    /**
+     * Replies to new messages and stops after expected number of messages.
+     */
+    private static class ReplyingBot extends LongPollBot {
+        private final AtomicInteger remaining;
+        private final List<Integer> errors = new CopyOnWriteArrayList<>();
+
+        ReplyingBot(VkHttpClient httpClient, int expectedMessages) {
+            super(httpClient);
+            this.remaining = new AtomicInteger(expectedMessages);
+        }
+
+        @Override
+        public String getAccessToken() {
+            return "token";
+        }
+
+        @Override
+        public void onMessageNew(MessageNew messageNew) {
+            try {
+                vk.messages.send()
+                        .setPeerId(messageNew.getMessage().getPeerId())
+                        .setMessage("pong")
+                        .execute();
+            } catch (VkResponseException e) {
+                errors.add(e.getCode());
+            } catch (VkApiException e) {
+                throw new RuntimeException(e);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                stopPolling();
+            }
+        }
+    }
+}
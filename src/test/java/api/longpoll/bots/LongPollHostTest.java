@@ -0,0 +1,192 @@
+package api.longpoll.bots;
+
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.mock.MockVkServer;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPollHostTest {
+    @Test
+    void routesUpdatesByGroupAndRenewsSessions() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(messageNew(333, 1), messageNew(444, 2), messageNew(555, 3))
+                    .setBatchLimit(6)
+                    .setMaxWait(Duration.ofMillis(100))
+                    .failLongPoll(2);
+            VkHttpClient httpClient = server.newHttpClient();
+            CountDownLatch latch = new CountDownLatch(4);
+            RecordingBot bot333 = new RecordingBot(httpClient, latch);
+            RecordingBot bot444 = new RecordingBot(httpClient, latch);
+            LongPollHost host = new LongPollHost(httpClient);
+            host.setWait(1);
+            host.addGroup(333, bot333).addGroup(444, bot444);
+
+            host.start();
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } finally {
+                host.stop();
+            }
+
+            assertEquals(Arrays.asList(1, 1), bot333.peerIds);
+            assertEquals(Arrays.asList(2, 2), bot444.peerIds);
+            assertTrue(server.getCallCount("groups.getLongPollServer") >= 3);
+            assertEquals(2, host.getGroupCount());
+        }
+    }
+
+    @Test
+    void pollsAllGroupsAtOnceAndCancelsRequestsOnStop() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.setMaxWait(Duration.ofSeconds(10));
+            ThreadPoolExecutor executorService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>());
+            VkHttpClient httpClient = VkHttpClient.builder()
+                    .setHttp2(false)
+                    .setMaxRequests(1)
+                    .setMaxRequestsPerHost(1)
+                    .setExecutorService(executorService)
+                    .addInterceptor(server.newRedirectInterceptor())
+                    .build();
+            LongPollHost host = new LongPollHost(httpClient);
+            host.setWait(10);
+            for (int groupId = 1; groupId <= 3; groupId++) {
+                host.addGroup(groupId, new RecordingBot(httpClient, new CountDownLatch(1)));
+            }
+
+            host.start();
+            try {
+                assertTrue(await(() -> server.getLongPollRequests().size() == 3));
+            } finally {
+                host.stop();
+            }
+
+            assertTrue(await(() -> executorService.getActiveCount() == 0));
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void resumesFromLastTsAfterRestart() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(messageNew(333, 1))
+                    .setBatchLimit(1)
+                    .setMaxWait(Duration.ofMillis(100));
+            VkHttpClient httpClient = server.newHttpClient();
+            CountDownLatch latch = new CountDownLatch(1);
+            LongPollHost host = new LongPollHost(httpClient);
+            host.setWait(1);
+            host.addGroup(333, new RecordingBot(httpClient, latch));
+
+            host.start();
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } finally {
+                host.stop();
+            }
+            server.setTs(10);
+            int before = server.getLongPollRequests().size();
+
+            host.start();
+            try {
+                assertTrue(await(() -> server.getLongPollRequests().size() > before));
+            } finally {
+                host.stop();
+            }
+
+            assertEquals("2", server.getLongPollRequests().get(before).get("ts"));
+        }
+    }
+
+    @Test
+    void skipsObjectsOfUpdatesNotAcceptedByBot() throws InterruptedException {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.addUpdates(messageNew(333, 1))
+                    .setBatchLimit(2)
+                    .setMaxWait(Duration.ofMillis(100));
+            VkHttpClient httpClient = server.newHttpClient();
+            CountDownLatch latch = new CountDownLatch(2);
+            List<Update> updates = new CopyOnWriteArrayList<>();
+            VkBot bot = new RecordingBot(httpClient, latch) {
+                @Override
+                public boolean accepts(Update.Type type) {
+                    return false;
+                }
+
+                @Override
+                public void handle(Update update) {
+                    updates.add(update);
+                    latch.countDown();
+                }
+            };
+            LongPollHost host = new LongPollHost(httpClient);
+            host.setWait(1);
+            host.addGroup(333, bot);
+
+            host.start();
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } finally {
+                host.stop();
+            }
+
+            assertEquals(Update.Type.MESSAGE_NEW, updates.get(0).getType());
+            assertNull(updates.get(0).getObject());
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static String messageNew(int groupId, int peerId) {
+        return "{\"type\":\"message_new\",\"object\":{\"message\":{\"date\":1593092311,\"from_id\":111,\"id\":0," +
+                "\"out\":0,\"peer_id\":" + peerId + ",\"text\":\"ping\",\"conversation_message_id\":1}}," +
+                "\"group_id\":" + groupId + ",\"event_id\":\"" + groupId + "\"}";
+    }
+
+    /**
+     * Records peers of new messages.
+     */
+    private static class RecordingBot extends VkBot {
+        private final List<Integer> peerIds = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        RecordingBot(VkHttpClient httpClient, CountDownLatch latch) {
+            super(httpClient);
+            this.latch = latch;
+        }
+
+        @Override
+        public String getAccessToken() {
+            return "token";
+        }
+
+        @Override
+        public void onMessageNew(MessageNew messageNew) {
+            peerIds.add(messageNew.getMessage().getPeerId());
+            latch.countDown();
+        }
+    }
+}
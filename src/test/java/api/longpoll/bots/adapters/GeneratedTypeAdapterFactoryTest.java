@@ -0,0 +1,47 @@
+package api.longpoll.bots.adapters;
+
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.model.objects.additional.Geo;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GeneratedTypeAdapterFactoryTest {
+    Gson reflectiveGson = new Gson();
+
+    @Test
+    void decodesEventsLikeReflectiveAdapters() throws IOException {
+        List<Path> samples;
+        try (Stream<Path> paths = Files.walk(Paths.get("src/test/resource/json/response"))) {
+            samples = paths.filter(path -> path.getFileName().toString().matches("\\w+_sample_5_\\d+\\.json"))
+                    .filter(path -> !path.getFileName().toString().startsWith("get_long_poll_server"))
+                    .collect(Collectors.toList());
+        }
+        assertFalse(samples.isEmpty());
+
+        for (Path sample : samples) {
+            String json = new String(Files.readAllBytes(sample), StandardCharsets.UTF_8);
+            GetUpdates.ResponseBody expected = reflectiveGson.fromJson(json, GetUpdates.ResponseBody.class);
+            GetUpdates.ResponseBody actual = VkGson.get().fromJson(json, GetUpdates.ResponseBody.class);
+            assertEquals(expected.toString(), actual.toString(), sample.toString());
+        }
+    }
+
+    @Test
+    void prefersHandWrittenAdapters() {
+        Geo geo = VkGson.get().fromJson("{\"type\":\"point\",\"coordinates\":\"59.93 30.31\"}", Geo.class);
+        assertEquals(59.93f, geo.getCoordinates().getLatitude());
+        assertEquals(30.31f, geo.getCoordinates().getLongitude());
+    }
+}
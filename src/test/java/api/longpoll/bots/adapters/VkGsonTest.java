@@ -0,0 +1,23 @@
+package api.longpoll.bots.adapters;
+
+import api.longpoll.bots.methods.impl.messages.Send;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VkGsonTest {
+    @Test
+    void decodesWithRegisteredAdapters() {
+        VkGson.warmUp();
+
+        Update update = VkGson.get().fromJson("{\"type\":\"message_new\",\"object\":{\"message\":{\"text\":\"hi\"}},\"group_id\":7,\"event_id\":\"a\"}", Update.class);
+        assertEquals(Update.Type.MESSAGE_NEW, update.getType());
+        assertTrue(update.getObject() instanceof MessageNew);
+
+        Send.ResponseBody responseBody = VkGson.get().fromJson("{\"response\":42}", Send.ResponseBody.class);
+        assertEquals(42, responseBody.getResponse());
+    }
+}
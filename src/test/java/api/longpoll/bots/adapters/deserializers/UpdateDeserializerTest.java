@@ -0,0 +1,44 @@
+package api.longpoll.bots.adapters.deserializers;
+
+import api.longpoll.bots.methods.impl.events.GetUpdates;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateDeserializerTest {
+    Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Update.class, new UpdateDeserializer(type -> type == Update.Type.MESSAGE_NEW))
+            .create();
+
+    @Test
+    void skipsObjectsOfRejectedTypes() {
+        String json = "{\"ts\":\"42\",\"updates\":[" +
+                "{\"type\":\"like_add\",\"object\":{\"liker_id\":1,\"object_type\":\"post\"},\"group_id\":7,\"event_id\":\"a\"}," +
+                "{\"type\":\"message_new\",\"object\":{\"message\":{\"text\":\"hi\"}},\"group_id\":7,\"event_id\":\"b\"}" +
+                "]}";
+
+        GetUpdates.ResponseBody responseBody = gson.fromJson(json, GetUpdates.ResponseBody.class);
+        assertEquals(42, responseBody.getTs());
+
+        List<Update> updates = responseBody.getEvents();
+        assertEquals(2, updates.size());
+
+        Update likeAdd = updates.get(0);
+        assertEquals(Update.Type.LIKE_ADD, likeAdd.getType());
+        assertEquals(7, likeAdd.getGroupId());
+        assertEquals("a", likeAdd.getEventId());
+        assertNull(likeAdd.getObject());
+
+        Update messageNew = updates.get(1);
+        assertTrue(messageNew.getObject() instanceof MessageNew);
+        assertEquals("hi", ((MessageNew) messageNew.getObject()).getMessage().getText());
+    }
+}
@@ -0,0 +1,47 @@
+package api.longpoll.bots.checkpoint;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileTsStoreTest {
+    @Test
+    void savesAndLoadsTs() throws IOException {
+        Path path = Files.createTempDirectory("ts").resolve("ts");
+        FileTsStore tsStore = new FileTsStore(path);
+
+        assertNull(tsStore.load());
+        tsStore.save(41);
+        tsStore.save(42);
+
+        assertEquals(42, new FileTsStore(path).load());
+        assertFalse(Files.exists(path.resolveSibling("ts.tmp")));
+    }
+
+    @Test
+    void writesBatchedCheckpointOnFlush() throws IOException {
+        Path path = Files.createTempDirectory("ts").resolve("ts");
+        FileTsStore fileTsStore = new FileTsStore(path);
+
+        try (AsyncTsStore tsStore = new AsyncTsStore(fileTsStore, Duration.ofHours(1))) {
+            tsStore.save(1);
+            tsStore.save(2);
+
+            assertNull(fileTsStore.load());
+            assertEquals(2, tsStore.load());
+
+            tsStore.flush();
+            assertEquals(2, fileTsStore.load());
+
+            tsStore.save(3);
+        }
+        assertEquals(3, fileTsStore.load());
+    }
+}
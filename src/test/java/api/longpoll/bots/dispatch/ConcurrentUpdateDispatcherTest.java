@@ -0,0 +1,101 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentUpdateDispatcherTest {
+    @Test
+    void preservesOrderPerKey() throws Exception {
+        Map<Integer, List<String>> handled = new ConcurrentHashMap<>();
+        ConcurrentUpdateDispatcher dispatcher = new ConcurrentUpdateDispatcher(
+                update -> handled.computeIfAbsent(update.getGroupId(), key -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(update.getEventId()),
+                4,
+                2,
+                Update::getGroupId
+        );
+
+        List<Update> updates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Update update = new Update();
+            update.setGroupId(i % 10);
+            update.setEventId(String.valueOf(i));
+            updates.add(update);
+        }
+        dispatcher.dispatch(updates).get(10, TimeUnit.SECONDS);
+        dispatcher.close();
+
+        assertEquals(10, handled.size());
+        handled.forEach((groupId, eventIds) -> {
+            assertEquals(10, eventIds.size());
+            for (int i = 0; i < eventIds.size(); i++) {
+                assertEquals(String.valueOf(groupId + i * 10), eventIds.get(i));
+            }
+        });
+    }
+
+    @Test
+    void completesEmptyBatch() {
+        ConcurrentUpdateDispatcher dispatcher = new ConcurrentUpdateDispatcher(update -> {
+        }, 1, 1);
+        assertTrue(dispatcher.dispatch(Collections.emptyList()).isDone());
+        dispatcher.close();
+    }
+
+    @Test
+    void failsBatchAndReleasesPermitOnRejection() {
+        ConcurrentUpdateDispatcher dispatcher = new ConcurrentUpdateDispatcher(update -> {
+        }, 1, 1);
+        dispatcher.close();
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<Void> batch = dispatcher.dispatch(Collections.singletonList(new Update()));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> batch.get(1, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    void handlesDispatchedUpdatesAfterClose() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        ConcurrentUpdateDispatcher dispatcher = new ConcurrentUpdateDispatcher(update -> {
+            started.countDown();
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.incrementAndGet();
+        }, 1, 200, update -> 0);
+
+        List<Update> updates = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            updates.add(new Update());
+        }
+        CompletableFuture<Void> batch = dispatcher.dispatch(updates);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.close();
+        closed.countDown();
+
+        batch.get(5, TimeUnit.SECONDS);
+        assertEquals(150, handled.get());
+    }
+}
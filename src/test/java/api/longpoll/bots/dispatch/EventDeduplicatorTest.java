@@ -0,0 +1,65 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.model.events.Update;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventDeduplicatorTest {
+    @Test
+    void dropsRepeatedEvents() {
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofMinutes(1));
+
+        List<Update> unique = deduplicator.filter(Arrays.asList(update("a"), update("b"), update("a"), update(null)));
+        assertEquals(3, unique.size());
+        assertEquals(0, deduplicator.filter(Arrays.asList(update("a"), update("b"))).size());
+
+        assertEquals(5, deduplicator.getChecks());
+        assertEquals(3, deduplicator.getDuplicates());
+        assertEquals(0.6, deduplicator.getHitRate(), 1e-9);
+        assertEquals(2, deduplicator.size());
+    }
+
+    @Test
+    void forgetsOldestEventsBeyondCapacity() {
+        int capacity = 1000;
+        EventDeduplicator deduplicator = new EventDeduplicator(capacity, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10 * capacity; i++) {
+            assertFalse(deduplicator.isDuplicate("event" + i));
+        }
+        for (int i = 9 * capacity; i < 10 * capacity; i++) {
+            assertTrue(deduplicator.isDuplicate("event" + i));
+        }
+        assertFalse(deduplicator.isDuplicate("event0"));
+        assertEquals(capacity, deduplicator.size());
+        assertTrue(deduplicator.getMemoryUsage() <= 6L * Long.BYTES * capacity);
+    }
+
+    @Test
+    void forgetsEventsOutsideWindow() {
+        AtomicLong clock = new AtomicLong();
+        EventDeduplicator deduplicator = new EventDeduplicator(100, Duration.ofSeconds(10), clock::get);
+
+        deduplicator.isDuplicate("a");
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        deduplicator.isDuplicate("b");
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        assertTrue(deduplicator.isDuplicate("b"));
+        assertFalse(deduplicator.isDuplicate("a"));
+    }
+
+    private static Update update(String eventId) {
+        Update update = new Update();
+        update.setEventId(eventId);
+        return update;
+    }
+}
@@ -0,0 +1,71 @@
+package api.longpoll.bots.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyedExecutorTest {
+    @Test
+    void runsTasksWithEqualKeysSequentially() throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        KeyedExecutor keyedExecutor = new KeyedExecutor(executorService, 16);
+        int keys = 10_000;
+        int tasksPerKey = 10;
+        Map<Integer, List<Integer>> executed = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(keys * tasksPerKey);
+
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                int k = key;
+                int order = i;
+                keyedExecutor.execute(k, () -> {
+                    if (running.computeIfAbsent(k, unused -> new AtomicInteger()).incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    executed.computeIfAbsent(k, unused -> Collections.synchronizedList(new ArrayList<>())).add(order);
+                    running.get(k).decrementAndGet();
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executorService.shutdown();
+        assertEquals(0, overlaps.get());
+        assertEquals(keys, executed.size());
+        executed.values().forEach(orders -> {
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, orders.get(i));
+            }
+        });
+    }
+
+    @Test
+    void continuesAfterFailedTask() throws InterruptedException {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        KeyedExecutor keyedExecutor = new KeyedExecutor(executorService, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        keyedExecutor.execute("key", () -> {
+            throw new IllegalStateException("Expected");
+        });
+        keyedExecutor.execute("key", latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,73 @@
+package api.longpoll.bots.dispatch;
+
+import api.longpoll.bots.VkBot;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import api.longpoll.bots.model.objects.basic.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateListenerRegistryTest {
+    @Test
+    void callsAllListenersOfUpdateType() {
+        List<String> calls = new ArrayList<>();
+        UpdateListenerRegistry registry = new UpdateListenerRegistry()
+                .register(Update.Type.MESSAGE_NEW, MessageNew.class, messageNew -> calls.add("first"))
+                .register(Update.Type.MESSAGE_NEW, Update.Object.class, object -> calls.add("second"));
+
+        registry.handle(newUpdate(Update.Type.MESSAGE_NEW, new MessageNew()));
+        registry.handle(newUpdate(Update.Type.MESSAGE_EDIT, new Message()));
+
+        assertEquals(Arrays.asList("first", "second"), calls);
+        assertTrue(registry.hasListeners(Update.Type.MESSAGE_NEW));
+        assertFalse(registry.hasListeners(Update.Type.MESSAGE_EDIT));
+        assertEquals(EnumSet.of(Update.Type.MESSAGE_NEW), registry.getConsumedTypes());
+    }
+
+    @Test
+    void rejectsListenerOfWrongObjectClass() {
+        UpdateListenerRegistry registry = new UpdateListenerRegistry();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(Update.Type.MESSAGE_NEW, Message.class, message -> {
+        }));
+    }
+
+    @Test
+    void registersOverriddenBotMethodsOnly() {
+        List<Message> replies = new ArrayList<>();
+        VkBot bot = new VkBot() {
+            @Override
+            public String getAccessToken() {
+                return "token";
+            }
+
+            @Override
+            public void onMessageReply(Message message) {
+                replies.add(message);
+            }
+        };
+        Message message = new Message();
+
+        bot.handle(newUpdate(Update.Type.MESSAGE_REPLY, message));
+
+        assertEquals(Collections.singletonList(message), replies);
+        assertEquals(EnumSet.of(Update.Type.MESSAGE_REPLY), bot.getListenerRegistry().getConsumedTypes());
+    }
+
+    private static Update newUpdate(Update.Type type, Update.Object object) {
+        Update update = new Update();
+        update.setType(type);
+        update.setObject(object);
+        return update;
+    }
+}
@@ -0,0 +1,92 @@
+package api.longpoll.bots.http;
+
+import api.longpoll.bots.exceptions.VkRateLimitException;
+import api.longpoll.bots.methods.impl.VkMethod;
+import api.longpoll.bots.methods.impl.groups.GetLongPollServer;
+import api.longpoll.bots.mock.MockVkServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    @Test
+    void rejectsRequestsBeyondBurstPerToken() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter(1, 3, RateLimiter.Mode.FAIL_FAST);
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("a");
+        }
+        VkRateLimitException e = assertThrows(VkRateLimitException.class, () -> rateLimiter.acquire("a"));
+        assertTrue(e.getRetryAfter() > 0);
+        rateLimiter.acquire("b");
+        assertTrue(rateLimiter.acquireAsync("a").isCompletedExceptionally());
+    }
+
+    @Test
+    void queuesRequestsAtConfiguredRate() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter(50, 1, RateLimiter.Mode.QUEUE);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.acquire("a");
+        }
+        List<CompletableFuture<Void>> permits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            permits.add(rateLimiter.acquireAsync("a"));
+        }
+        CompletableFuture.allOf(permits.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190));
+    }
+
+    @Test
+    void grantsExactlyBurstToConcurrentCallers() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(0.1, 100, RateLimiter.Mode.FAIL_FAST);
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        rateLimiter.acquire("a");
+                        acquired.incrementAndGet();
+                    } catch (VkRateLimitException | InterruptedException ignored) {
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, acquired.get());
+    }
+
+    @Test
+    void doesNotSendRequestCancelledWhileWaitingForPermit() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            RateLimiter rateLimiter = new RateLimiter(2, 1, RateLimiter.Mode.QUEUE);
+            VkHttpClient httpClient = VkHttpClient.builder()
+                    .setHttp2(false)
+                    .addInterceptor(server.newRedirectInterceptor())
+                    .setRateLimiter(rateLimiter)
+                    .build();
+            VkMethod<?> cancelled = new GetLongPollServer("token").setGroupId(1).setHttpClient(httpClient);
+            rateLimiter.acquire("token");
+            assertTrue(cancelled.executeAsync().cancel(false));
+            new GetLongPollServer("token").setGroupId(1).setHttpClient(httpClient).executeAsync().get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, server.getCallCount("groups.getLongPollServer"));
+        }
+    }
+}
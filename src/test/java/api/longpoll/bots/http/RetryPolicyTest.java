@@ -0,0 +1,97 @@
+package api.longpoll.bots.http;
+
+import api.longpoll.bots.exceptions.VkHttpException;
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.methods.VkBotsMethods;
+import api.longpoll.bots.mock.MockVkServer;
+import okhttp3.FormBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+    @Test
+    void classifiesErrorsAndBacksOffWithinBudget() {
+        assertTrue(RetryPolicy.isTransient(new VkResponseException(6, "Too many requests per second", Collections.emptyMap())));
+        assertTrue(RetryPolicy.isTransient(new VkHttpException(502)));
+        assertTrue(RetryPolicy.isTransient(new SocketTimeoutException()));
+        assertFalse(RetryPolicy.isTransient(new VkResponseException(5, "User authorization failed", Collections.emptyMap())));
+        assertFalse(RetryPolicy.isTransient(new VkResponseException(901, "Can't send messages", Collections.emptyMap())));
+        assertFalse(RetryPolicy.isTransient(new VkHttpException(404)));
+
+        RetryPolicy retryPolicy = new RetryPolicy()
+                .setMaxAttempts(4)
+                .setBaseDelay(Duration.ofMillis(100))
+                .setMaxDelay(Duration.ofMillis(300))
+                .setMaxElapsed(Duration.ofSeconds(1));
+        IOException e = new IOException();
+        for (int i = 0; i < 100; i++) {
+            long delay = retryPolicy.getDelay(1, 0, e);
+            assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(50) && delay <= TimeUnit.MILLISECONDS.toNanos(100));
+            delay = retryPolicy.getDelay(3, 0, e);
+            assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(150) && delay <= TimeUnit.MILLISECONDS.toNanos(300));
+        }
+        assertEquals(-1, retryPolicy.getDelay(4, 0, e));
+        assertEquals(-1, retryPolicy.getDelay(1, TimeUnit.MILLISECONDS.toNanos(950), e));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        RetryPolicy retryPolicy = new RetryPolicy();
+
+        assertThrows(IllegalArgumentException.class, () -> retryPolicy.setMaxAttempts(0));
+        assertThrows(IllegalArgumentException.class, () -> retryPolicy.setBaseDelay(null));
+        assertThrows(IllegalArgumentException.class, () -> retryPolicy.setMaxDelay(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> retryPolicy.setMaxElapsed(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void retriesTransientErrorsWithSameRandomId() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            List<String> randomIds = new CopyOnWriteArrayList<>();
+            VkHttpClient httpClient = VkHttpClient.builder()
+                    .setHttp2(false)
+                    .addInterceptor(chain -> {
+                        FormBody body = (FormBody) chain.request().body();
+                        for (int i = 0; body != null && i < body.size(); i++) {
+                            if ("random_id".equals(body.name(i))) {
+                                randomIds.add(body.value(i));
+                            }
+                        }
+                        return chain.proceed(chain.request());
+                    })
+                    .addInterceptor(server.newRedirectInterceptor())
+                    .setRetryPolicy(new RetryPolicy().setBaseDelay(Duration.ofMillis(10)))
+                    .build();
+            VkBotsMethods vk = new VkBotsMethods("token", httpClient);
+
+            server.injectError("messages.send", 10).injectError("messages.send", 6);
+            vk.messages.send().setPeerId(1).setMessage("sync").execute();
+            assertEquals(3, server.getCallCount("messages.send"));
+            assertEquals(1, randomIds.stream().distinct().count());
+
+            server.injectError("messages.send", 9);
+            vk.messages.send().setPeerId(1).setMessage("async").executeAsync().get(5, TimeUnit.SECONDS);
+            assertEquals(5, server.getCallCount("messages.send"));
+
+            server.injectError("messages.send", 901);
+            ExecutionException e = assertThrows(ExecutionException.class, () ->
+                    vk.messages.send().setPeerId(1).setMessage("permanent").executeAsync().get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof VkResponseException);
+            assertEquals(6, server.getCallCount("messages.send"));
+            assertEquals(2, server.getSentMessages().size());
+        }
+    }
+}
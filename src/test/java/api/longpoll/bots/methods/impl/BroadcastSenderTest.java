@@ -0,0 +1,72 @@
+package api.longpoll.bots.methods.impl;
+
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.http.RetryPolicy;
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.methods.VkBotsMethods;
+import api.longpoll.bots.mock.MockVkServer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BroadcastSenderTest {
+    @Test
+    void sendsInChunksAndRetriesOnlyFailedPeers() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.failPeer(7, 10).failPeer(8, 901).injectError("messages.send", 9);
+            VkHttpClient httpClient = VkHttpClient.builder()
+                    .setHttp2(false)
+                    .addInterceptor(server.newRedirectInterceptor())
+                    .setRetryPolicy(new RetryPolicy().setBaseDelay(Duration.ofMillis(10)))
+                    .build();
+            VkBotsMethods vk = new VkBotsMethods("token", httpClient);
+            Map<Integer, Integer> failures = new ConcurrentHashMap<>();
+            AtomicInteger progressReports = new AtomicInteger();
+
+            BroadcastSender.Progress progress = new BroadcastSender(() -> vk.messages.send().setMessage("Hello"))
+                    .setParallelism(2)
+                    .setRetryDelay(Duration.ofMillis(10))
+                    .setProgressListener(p -> progressReports.incrementAndGet())
+                    .setFailureListener((peerId, e) -> failures.put(peerId, ((VkResponseException) e).getCode()))
+                    .send(IntStream.rangeClosed(1, 250).boxed())
+                    .get(10, TimeUnit.SECONDS);
+
+            assertEquals(249, progress.getSent());
+            assertEquals(1, progress.getFailed());
+            assertEquals(101, progress.getRetried());
+            assertEquals(901, failures.get(8));
+            assertEquals(1, failures.size());
+            assertEquals(5, server.getCallCount("messages.send"));
+            assertEquals(5, progressReports.get());
+            assertTrue(server.getSentMessages().stream().allMatch(params ->
+                    params.get("peer_ids").split(",").length <= BroadcastSender.MAX_PEERS
+                            && "Hello".equals(params.get("message"))
+            ));
+        }
+    }
+
+    @Test
+    void failsPeersOfBrokenFactoryWithoutDeepRecursion() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+
+        BroadcastSender.Progress progress = new BroadcastSender(() -> {
+            throw new IllegalStateException("No message");
+        })
+                .setParallelism(1)
+                .setFailureListener((peerId, e) -> failures.incrementAndGet())
+                .send(IntStream.range(0, 1_000_000).boxed())
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(0, progress.getSent());
+        assertEquals(1_000_000, progress.getFailed());
+        assertEquals(1_000_000, failures.get());
+    }
+}
@@ -0,0 +1,102 @@
+package api.longpoll.bots.methods.impl;
+
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.http.VkHttpClient;
+import api.longpoll.bots.methods.VkBotsMethods;
+import api.longpoll.bots.methods.impl.messages.Send;
+import api.longpoll.bots.mock.MockVkServer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecuteBatcherTest {
+    @Test
+    void packsCallsIntoExecuteAndDemultiplexesResults() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            server.injectError("messages.send", 901);
+            VkBotsMethods vk = new VkBotsMethods(() -> "token", server.newHttpClient());
+            List<CompletableFuture<Send.ResponseBody>> responses = new ArrayList<>();
+
+            try (ExecuteBatcher batcher = new ExecuteBatcher(Duration.ofMillis(100))) {
+                for (int i = 0; i < 30; i++) {
+                    responses.add(batcher.submit(vk.messages.send().setPeerId(i).setMessage("\"Hello\" <" + i + ">")));
+                }
+                CompletableFuture.allOf(responses.toArray(new CompletableFuture[0]))
+                        .exceptionally(e -> null)
+                        .get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(2, server.getCallCount("execute"));
+            assertEquals(0, server.getCallCount("messages.send"));
+            ExecutionException e = null;
+            try {
+                responses.get(0).get();
+            } catch (ExecutionException failure) {
+                e = failure;
+            }
+            assertTrue(e != null && e.getCause() instanceof VkResponseException);
+            assertEquals(901, ((VkResponseException) e.getCause()).getCode());
+            assertTrue(responses.get(29).get().getResponse() instanceof Integer);
+            assertEquals(29, server.getSentMessages().size());
+            assertTrue(server.getSentMessages().stream().anyMatch(params ->
+                    "29".equals(params.get("peer_id")) && "\"Hello\" <29>".equals(params.get("message"))
+            ));
+        }
+    }
+
+    @Test
+    void sendsBatchesByClientOfCallsWithoutCancelledCalls() throws Exception {
+        try (MockVkServer server = MockVkServer.start()) {
+            List<String> otherClientMethods = new CopyOnWriteArrayList<>();
+            VkHttpClient otherClient = VkHttpClient.builder()
+                    .setHttp2(false)
+                    .addInterceptor(chain -> {
+                        List<String> pathSegments = chain.request().url().pathSegments();
+                        otherClientMethods.add(pathSegments.get(pathSegments.size() - 1));
+                        return chain.proceed(chain.request());
+                    })
+                    .addInterceptor(server.newRedirectInterceptor())
+                    .build();
+            VkBotsMethods vk = new VkBotsMethods(() -> "token", server.newHttpClient());
+            VkBotsMethods otherVk = new VkBotsMethods(() -> "token", otherClient);
+            List<CompletableFuture<Send.ResponseBody>> responses = new ArrayList<>();
+
+            try (ExecuteBatcher batcher = new ExecuteBatcher(Duration.ofMillis(100))) {
+                batcher.submit(vk.messages.send().setPeerId(1).setMessage("cancelled")).cancel(false);
+                responses.add(batcher.submit(vk.messages.send().setPeerId(2).setMessage("Hello")));
+                responses.add(batcher.submit(vk.messages.send().setPeerId(3).setMessage("Hello")));
+                responses.add(batcher.submit(otherVk.messages.send().setPeerId(4).setMessage("Hello")));
+                responses.add(batcher.submit(otherVk.messages.send().setPeerId(5).setMessage("Hello")));
+                CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(2, server.getCallCount("execute"));
+            assertEquals(Arrays.asList("execute"), otherClientMethods);
+            assertEquals(4, server.getSentMessages().size());
+            assertTrue(server.getSentMessages().stream().noneMatch(params -> "1".equals(params.get("peer_id"))));
+        }
+    }
+
+    @Test
+    void rejectsCallsAfterClose() {
+        try (MockVkServer server = MockVkServer.start()) {
+            VkBotsMethods vk = new VkBotsMethods(() -> "token", server.newHttpClient());
+            ExecuteBatcher batcher = new ExecuteBatcher(Duration.ofMillis(100));
+            batcher.close();
+
+            assertThrows(IllegalStateException.class, () -> batcher.submit(vk.messages.send().setPeerId(1).setMessage("Hello")));
+            assertEquals(0, server.getCallCount("execute"));
+        }
+    }
+}
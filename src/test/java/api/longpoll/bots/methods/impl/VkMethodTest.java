@@ -0,0 +1,58 @@
+package api.longpoll.bots.methods.impl;
+
+import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.exceptions.VkResponseException;
+import api.longpoll.bots.model.response.IntegerResponseBody;
+import okhttp3.FormBody;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VkMethodTest {
+    VkMethod<IntegerResponseBody> vkMethod = new VkMethod<IntegerResponseBody>("https://api.vk.com/method/test") {
+        @Override
+        protected Class<IntegerResponseBody> getResponseClass() {
+            return IntegerResponseBody.class;
+        }
+    };
+
+    @Test
+    void readsResponse() throws VkApiException, IOException {
+        assertEquals(1, vkMethod.readResponse(ResponseBody.create("{\"response\":1}", null)).getResponse());
+    }
+
+    @Test
+    void throwsStructuredException() throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get("src/test/resource/json/response/get_long_poll_server_response_error_sample_5_110.json")));
+
+        VkResponseException e = assertThrows(VkResponseException.class, () -> vkMethod.readResponse(ResponseBody.create(json, null)));
+        assertEquals(5, e.getCode());
+        assertEquals("User authorization failed: no access_token passed.", e.getErrorMessage());
+        assertEquals("groups.getLongPollServer", e.getRequestParams().get("method"));
+        assertEquals("111", e.getRequestParams().get("group_id"));
+    }
+
+    @Test
+    void throwsExceptionOfUploadServerError() {
+        String json = "{\"error\":\"ERR_UPLOAD_BAD_IMAGE_SIZE: market photo min size 400x400\"}";
+
+        VkResponseException e = assertThrows(VkResponseException.class, () -> vkMethod.readResponse(ResponseBody.create(json, null)));
+        assertEquals("ERR_UPLOAD_BAD_IMAGE_SIZE: market photo min size 400x400", e.getErrorMessage());
+    }
+
+    @Test
+    void replacesParamValue() {
+        vkMethod.addParam("ts", 1).addParam("key", "abc").addParam("ts", 2);
+
+        FormBody formBody = (FormBody) vkMethod.newRequestBody();
+        assertEquals(2, formBody.size());
+        assertEquals("ts", formBody.name(0));
+        assertEquals("2", formBody.value(0));
+    }
+}
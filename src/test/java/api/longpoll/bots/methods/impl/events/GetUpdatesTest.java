@@ -0,0 +1,50 @@
+package api.longpoll.bots.methods.impl.events;
+
+import api.longpoll.bots.exceptions.VkApiException;
+import api.longpoll.bots.exceptions.VkLongPollFailedException;
+import api.longpoll.bots.model.events.Update;
+import api.longpoll.bots.model.events.messages.MessageNew;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GetUpdatesTest {
+    GetUpdates getUpdates = new GetUpdates("https://lp.vk.com/wh1");
+
+    @Test
+    void readsUpdatesFromStream() throws VkApiException, IOException {
+        getUpdates.setUpdateFilter(type -> type == Update.Type.MESSAGE_NEW);
+        String json = "{\"ts\":\"42\",\"updates\":[" +
+                "{\"group_id\":7,\"type\":\"message_typing_state\",\"event_id\":\"a\",\"v\":\"5.131\",\"object\":{\"state\":\"typing\",\"from_id\":1,\"to_id\":-7}}," +
+                "{\"object\":{\"message\":{\"text\":\"hi\",\"peer_id\":1}},\"type\":\"message_new\",\"group_id\":7,\"event_id\":\"b\"}" +
+                "]}";
+
+        GetUpdates.ResponseBody response = getUpdates.readResponse(ResponseBody.create(json, null));
+        assertEquals(42, response.getTs());
+
+        List<Update> updates = response.getEvents();
+        assertEquals(2, updates.size());
+        assertEquals(Update.Type.MESSAGE_TYPING_STATE, updates.get(0).getType());
+        assertEquals("a", updates.get(0).getEventId());
+        assertNull(updates.get(0).getObject());
+        assertTrue(updates.get(1).getObject() instanceof MessageNew);
+        assertEquals("hi", ((MessageNew) updates.get(1).getObject()).getMessage().getText());
+    }
+
+    @Test
+    void throwsOnFailedResponse() {
+        VkLongPollFailedException e = assertThrows(
+                VkLongPollFailedException.class,
+                () -> getUpdates.readResponse(ResponseBody.create("{\"failed\":1,\"ts\":2593}", null))
+        );
+        assertEquals(VkLongPollFailedException.HISTORY_OUTDATED, e.getCode());
+        assertEquals(2593, e.getTs());
+    }
+}
@@ -0,0 +1,709 @@
+package api.longpoll.bots.mock;
+
+import api.longpoll.bots.http.VkHttpClient;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fake of VK API ({@code /method/*}) and Long Poll server ({@code a_check}) for end-to-end, load and
+ * latency tests without network.
+ * <p>
+ * Long Poll server serves canned updates in batches at configurable rate, and may be told to respond with
+ * {@code failed} 1, 2 or 3. VK API methods respond with {@code {"response":1}} unless an error is injected;
+ * {@code messages.send} calls are recorded. Requests to {@code api.vk.com} are routed to this server by
+ * {@link MockVkServer#newHttpClient()}, or globally by setting {@link MockVkServer#getApiUrl()} as API base URL:
+ * <pre>{@code
+ * try (MockVkServer server = MockVkServer.start()) {
+ *     server.addUpdates(messageNewJson).setBatchLimit(100);
+ *     LongPollBot bot = new MyBot(server.newHttpClient());
+ *     ...
+ * }
+ * }</pre>
+ */
+public class MockVkServer implements AutoCloseable {
+    /**
+     * Messages of injectable VK errors.
+     */
+    private static final Map<Integer, String> ERROR_MESSAGES = new HashMap<>();
+
+    static {
+        ERROR_MESSAGES.put(1, "Unknown error occurred");
+        ERROR_MESSAGES.put(5, "User authorization failed: invalid access_token");
+        ERROR_MESSAGES.put(6, "Too many requests per second");
+        ERROR_MESSAGES.put(9, "Flood control");
+        ERROR_MESSAGES.put(10, "Internal server error");
+        ERROR_MESSAGES.put(901, "Can't send messages for users without permission");
+    }
+
+    /**
+     * Path of VK API methods.
+     */
+    private static final String METHOD_PATH = "/method/";
+
+    /**
+     * Path of Long Poll server.
+     */
+    private static final String LONG_POLL_PATH = "/lp";
+
+    /**
+     * HTTP server.
+     */
+    private final HttpServer httpServer;
+
+    /**
+     * Runs request handlers.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * Canned updates JSON, served in order and cycled.
+     */
+    private final List<String> updates = new ArrayList<>();
+
+    /**
+     * Number of updates served.
+     */
+    private final AtomicLong servedUpdates = new AtomicLong();
+
+    /**
+     * Number of last served batch of updates.
+     */
+    private final AtomicInteger ts = new AtomicInteger(1);
+
+    /**
+     * Number of served batches.
+     */
+    private final AtomicInteger servedBatches = new AtomicInteger();
+
+    /**
+     * Number of Long Poll server key rotations.
+     */
+    private final AtomicInteger keyVersion = new AtomicInteger(1);
+
+    /**
+     * Pending {@code failed} responses of Long Poll server.
+     */
+    private final Queue<Integer> longPollFailures = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Pending error codes by VK API method name.
+     */
+    private final Map<String, Queue<Integer>> injectedErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Pending error codes of {@code messages.send} by peer ID.
+     */
+    private final Map<Integer, Queue<Integer>> peerErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Numbers of calls by VK API method name.
+     */
+    private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Parameters of received {@code messages.send} calls.
+     */
+    private final Queue<Map<String, String>> sentMessages = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Parameters of received Long Poll requests.
+     */
+    private final Queue<Map<String, String>> longPollRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of updates per batch.
+     */
+    private volatile int batchSize = 1;
+
+    /**
+     * Max number of batches to serve. Once reached, Long Poll server responds with no updates.
+     */
+    private volatile int batchLimit = Integer.MAX_VALUE;
+
+    /**
+     * Min interval between batches (in nanoseconds).
+     */
+    private volatile long batchInterval;
+
+    /**
+     * Time when the next batch may be served (in nanoseconds).
+     */
+    private final AtomicLong nextBatchAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Max time to hold Long Poll request when there are no updates.
+     */
+    private volatile Duration maxWait = Duration.ofSeconds(25);
+
+    /**
+     * Delay added to every response.
+     */
+    private volatile Duration latency = Duration.ZERO;
+
+    /**
+     * Error code injected into VK API responses at random, or {@code 0} if none.
+     */
+    private volatile int randomErrorCode;
+
+    /**
+     * Probability of random error injection.
+     */
+    private volatile double randomErrorRate;
+
+    private MockVkServer(HttpServer httpServer) {
+        this.httpServer = httpServer;
+        this.executorService = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "MockVkServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executorService);
+        httpServer.createContext(METHOD_PATH, this::handleMethod);
+        httpServer.createContext(LONG_POLL_PATH, this::handleLongPoll);
+    }
+
+    /**
+     * Starts server on a free local port.
+     *
+     * @return started server.
+     */
+    public static MockVkServer start() {
+        try {
+            MockVkServer server = new MockVkServer(HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0));
+            server.httpServer.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets base URL of this server.
+     *
+     * @return base URL, e.g. {@code http://127.0.0.1:port}.
+     */
+    public String getUrl() {
+        InetSocketAddress address = httpServer.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    /**
+     * Gets VK API base URL of this server, e.g. to be set by {@link api.longpoll.bots.utils.VkMethods#setBaseUrl(String)}.
+     *
+     * @return VK API base URL.
+     */
+    public String getApiUrl() {
+        return getUrl() + METHOD_PATH;
+    }
+
+    /**
+     * Gets URL of Long Poll server.
+     *
+     * @return URL of Long Poll server.
+     */
+    public String getLongPollUrl() {
+        return getUrl() + LONG_POLL_PATH;
+    }
+
+    /**
+     * Gets actual Long Poll server key.
+     *
+     * @return Long Poll server key.
+     */
+    public String getKey() {
+        return "key" + keyVersion.get();
+    }
+
+    /**
+     * Creates interceptor which routes requests to {@code api.vk.com} to this server.
+     *
+     * @return interceptor.
+     */
+    public Interceptor newRedirectInterceptor() {
+        HttpUrl url = HttpUrl.get(getUrl());
+        return chain -> {
+            HttpUrl requestUrl = chain.request().url();
+            if (!"api.vk.com".equals(requestUrl.host())) {
+                return chain.proceed(chain.request());
+            }
+            return chain.proceed(chain.request().newBuilder()
+                    .url(requestUrl.newBuilder().scheme(url.scheme()).host(url.host()).port(url.port()).build())
+                    .build());
+        };
+    }
+
+    /**
+     * Creates HTTP client which sends all VK requests to this server.
+     *
+     * @return HTTP client.
+     */
+    public VkHttpClient newHttpClient() {
+        return VkHttpClient.builder()
+                .setHttp2(false)
+                .addInterceptor(newRedirectInterceptor())
+                .build();
+    }
+
+    /**
+     * Adds canned updates. Updates are served in order of addition and cycled.
+     *
+     * @param updates updates JSON, e.g. {@code {"type":"message_new","object":{...},"group_id":1,"event_id":"a"}}.
+     * @return current instance.
+     */
+    public MockVkServer addUpdates(String... updates) {
+        synchronized (this.updates) {
+            this.updates.addAll(Arrays.asList(updates));
+        }
+        return this;
+    }
+
+    /**
+     * Sets {@code ts} of the last served batch.
+     *
+     * @param ts {@code ts} value.
+     * @return current instance.
+     */
+    public MockVkServer setTs(int ts) {
+        this.ts.set(ts);
+        return this;
+    }
+
+    public MockVkServer setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public MockVkServer setBatchLimit(int batchLimit) {
+        this.batchLimit = batchLimit;
+        return this;
+    }
+
+    /**
+     * Sets rate of serving batches.
+     *
+     * @param batchesPerSecond max number of batches served per second.
+     * @return current instance.
+     */
+    public MockVkServer setBatchRate(double batchesPerSecond) {
+        this.batchInterval = (long) (TimeUnit.SECONDS.toNanos(1) / batchesPerSecond);
+        return this;
+    }
+
+    public MockVkServer setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+        return this;
+    }
+
+    public MockVkServer setLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Makes Long Poll server respond with {@code failed} once. Values 2 and 3 also expire actual key.
+     *
+     * @param failed {@code failed} value: 1, 2 or 3.
+     * @return current instance.
+     */
+    public MockVkServer failLongPoll(int failed) {
+        longPollFailures.add(failed);
+        return this;
+    }
+
+    /**
+     * Makes VK API method respond with error once.
+     *
+     * @param method    method name, e.g. {@code messages.send}.
+     * @param errorCode VK error code, e.g. 6, 9 or 10.
+     * @return current instance.
+     */
+    public MockVkServer injectError(String method, int errorCode) {
+        injectedErrors.computeIfAbsent(method, key -> new ConcurrentLinkedQueue<>()).add(errorCode);
+        return this;
+    }
+
+    /**
+     * Makes {@code messages.send} with {@code peer_ids} report error for the peer once, while other peers of the
+     * call succeed.
+     *
+     * @param peerId    peer ID.
+     * @param errorCode VK error code, e.g. 10 or 901.
+     * @return current instance.
+     */
+    public MockVkServer failPeer(int peerId, int errorCode) {
+        peerErrors.computeIfAbsent(peerId, key -> new ConcurrentLinkedQueue<>()).add(errorCode);
+        return this;
+    }
+
+    /**
+     * Makes VK API methods respond with error at random.
+     *
+     * @param errorCode VK error code, e.g. 6, 9 or 10.
+     * @param rate      probability of error for each call.
+     * @return current instance.
+     */
+    public MockVkServer setRandomError(int errorCode, double rate) {
+        this.randomErrorCode = errorCode;
+        this.randomErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * Gets parameters of received {@code messages.send} calls in order of receipt.
+     *
+     * @return parameters of received {@code messages.send} calls.
+     */
+    public List<Map<String, String>> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    /**
+     * Gets parameters of received Long Poll requests in order of receipt.
+     *
+     * @return parameters of received Long Poll requests.
+     */
+    public List<Map<String, String>> getLongPollRequests() {
+        return new ArrayList<>(longPollRequests);
+    }
+
+    /**
+     * Gets number of received calls of VK API method.
+     *
+     * @param method method name, e.g. {@code execute}.
+     * @return number of received calls.
+     */
+    public int getCallCount(String method) {
+        AtomicInteger callCount = callCounts.get(method);
+        return callCount != null ? callCount.get() : 0;
+    }
+
+    public int getServedBatches() {
+        return servedBatches.get();
+    }
+
+    public long getServedUpdates() {
+        return servedUpdates.get();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Handles VK API method call.
+     *
+     * @param exchange HTTP exchange.
+     * @throws IOException if errors occur.
+     */
+    private void handleMethod(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestURI().getPath().substring(METHOD_PATH.length());
+        Map<String, String> params = readParams(exchange);
+        callCounts.computeIfAbsent(method, key -> new AtomicInteger()).incrementAndGet();
+        delay(latency);
+
+        Integer errorCode = nextError(method);
+        if (errorCode != null) {
+            respond(exchange, "{\"error\":{\"error_code\":" + errorCode + ",\"error_msg\":\""
+                    + ERROR_MESSAGES.getOrDefault(errorCode, "Error") + "\",\"request_params\":[{\"key\":\"method\",\"value\":\""
+                    + method + "\"}]}}");
+            return;
+        }
+
+        switch (method) {
+            case "messages.send":
+                sentMessages.add(params);
+                respond(exchange, "{\"response\":" + (params.containsKey("peer_ids")
+                        ? sendToPeers(params.get("peer_ids"))
+                        : String.valueOf(sentMessages.size())) + "}");
+                break;
+
+            case "groups.getLongPollServer":
+                respond(exchange, "{\"response\":" + longPollServer() + "}");
+                break;
+
+            case "execute":
+                String code = params.getOrDefault("code", "");
+                if (code.startsWith("return [API.")) {
+                    respond(exchange, executeBatch(code));
+                } else {
+                    respond(exchange, "{\"response\":" + (code.contains("getLongPollServer") ? longPollServer() : "1") + "}");
+                }
+                break;
+
+            default:
+                respond(exchange, "{\"response\":1}");
+        }
+    }
+
+    /**
+     * Executes calls of {@code return [API.method({...}),...];} code one by one. Injected errors of the methods are
+     * reported in {@code execute_errors}.
+     *
+     * @param code VKScript code.
+     * @return response JSON.
+     */
+    private String executeBatch(String code) {
+        List<String> results = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (int from = code.indexOf("API."); from >= 0; from = code.indexOf("API.", from + 1)) {
+            int paren = code.indexOf('(', from);
+            String method = code.substring(from + "API.".length(), paren);
+            JsonObject json = JsonParser.parseReader(new JsonReader(new StringReader(code.substring(paren + 1)))).getAsJsonObject();
+            Map<String, String> callParams = new HashMap<>();
+            json.entrySet().forEach(entry -> callParams.put(entry.getKey(), entry.getValue().getAsString()));
+
+            Integer errorCode = nextError(method);
+            if (errorCode != null) {
+                results.add("false");
+                errors.add("{\"method\":\"" + method + "\",\"error_code\":" + errorCode + ",\"error_msg\":\""
+                        + ERROR_MESSAGES.getOrDefault(errorCode, "Error") + "\"}");
+            } else if ("messages.send".equals(method)) {
+                sentMessages.add(callParams);
+                results.add(String.valueOf(sentMessages.size()));
+            } else {
+                results.add("1");
+            }
+        }
+        return "{\"response\":[" + String.join(",", results) + "]"
+                + (errors.isEmpty() ? "" : ",\"execute_errors\":[" + String.join(",", errors) + "]") + "}";
+    }
+
+    /**
+     * Makes per-peer results of {@code messages.send} with {@code peer_ids}. Injected peer errors are reported in
+     * results of the peers.
+     *
+     * @param peerIds comma-separated peer IDs.
+     * @return results JSON.
+     */
+    private String sendToPeers(String peerIds) {
+        List<String> results = new ArrayList<>();
+        for (String peerId : peerIds.split(",")) {
+            Queue<Integer> errors = peerErrors.get(Integer.parseInt(peerId));
+            Integer errorCode = errors != null ? errors.poll() : null;
+            if (errorCode != null) {
+                results.add("{\"peer_id\":" + peerId + ",\"error\":{\"code\":" + errorCode + ",\"description\":\""
+                        + ERROR_MESSAGES.getOrDefault(errorCode, "Error") + "\"}}");
+            } else {
+                results.add("{\"peer_id\":" + peerId + ",\"message_id\":" + sentMessages.size() + "}");
+            }
+        }
+        return "[" + String.join(",", results) + "]";
+    }
+
+    /**
+     * Gets error code to respond with.
+     *
+     * @param method method name.
+     * @return error code or {@code null} if method should succeed.
+     */
+    private Integer nextError(String method) {
+        Queue<Integer> errors = injectedErrors.get(method);
+        Integer errorCode = errors != null ? errors.poll() : null;
+        if (errorCode == null && randomErrorCode != 0 && ThreadLocalRandom.current().nextDouble() < randomErrorRate) {
+            errorCode = randomErrorCode;
+        }
+        return errorCode;
+    }
+
+    /**
+     * Describes Long Poll server.
+     *
+     * @return Long Poll server JSON.
+     */
+    private String longPollServer() {
+        return "{\"key\":\"" + getKey() + "\",\"server\":\"" + getLongPollUrl() + "\",\"ts\":\"" + ts.get() + "\"}";
+    }
+
+    /**
+     * Handles {@code a_check} request.
+     *
+     * @param exchange HTTP exchange.
+     * @throws IOException if errors occur.
+     */
+    private void handleLongPoll(HttpExchange exchange) throws IOException {
+        Map<String, String> params = readParams(exchange);
+        longPollRequests.add(params);
+        delay(latency);
+
+        if (!getKey().equals(params.get("key"))) {
+            respond(exchange, "{\"failed\":2}");
+            return;
+        }
+
+        Integer failed = longPollFailures.poll();
+        if (failed != null) {
+            if (failed != 1) {
+                keyVersion.incrementAndGet();
+            }
+            respond(exchange, failed == 1 ? "{\"failed\":1,\"ts\":" + ts.get() + "}" : "{\"failed\":" + failed + "}");
+            return;
+        }
+
+        String batch = nextBatch(params);
+        respond(exchange, "{\"ts\":\"" + ts.get() + "\",\"updates\":[" + batch + "]}");
+    }
+
+    /**
+     * Waits for the next batch and takes it.
+     *
+     * @param params Long Poll request parameters.
+     * @return comma-separated updates JSON, empty if there are no updates within wait time.
+     */
+    private String nextBatch(Map<String, String> params) {
+        long waitNanos = Math.min(
+                TimeUnit.SECONDS.toNanos(Long.parseLong(params.getOrDefault("wait", "25"))),
+                maxWait.toNanos()
+        );
+        long deadline = System.nanoTime() + waitNanos;
+
+        while (true) {
+            long now = System.nanoTime();
+            long batchAt = nextBatchAt.get();
+            boolean available = !updates.isEmpty() && servedBatches.get() < batchLimit;
+            if (available && now - batchAt >= 0) {
+                if (!nextBatchAt.compareAndSet(batchAt, Math.max(batchAt, now) + batchInterval)) {
+                    continue;
+                }
+                if (servedBatches.incrementAndGet() <= batchLimit) {
+                    ts.incrementAndGet();
+                    return takeUpdates();
+                }
+                servedBatches.decrementAndGet();
+                continue;
+            }
+            long sleepUntil = available ? Math.min(batchAt, deadline) : deadline;
+            if (now - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                return "";
+            }
+            delay(Duration.ofNanos(Math.max(sleepUntil - now, TimeUnit.MILLISECONDS.toNanos(1))));
+        }
+    }
+
+    /**
+     * Takes the next {@link MockVkServer#batchSize} canned updates.
+     *
+     * @return comma-separated updates JSON.
+     */
+    private String takeUpdates() {
+        StringBuilder batch = new StringBuilder();
+        synchronized (updates) {
+            for (int i = 0; i < batchSize; i++) {
+                if (i > 0) {
+                    batch.append(',');
+                }
+                batch.append(updates.get((int) (servedUpdates.getAndIncrement() % updates.size())));
+            }
+        }
+        return batch.toString();
+    }
+
+    /**
+     * Reads query and form parameters. The last value of repeated parameter wins.
+     *
+     * @param exchange HTTP exchange.
+     * @return request parameters.
+     * @throws IOException if errors occur.
+     */
+    private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseParams(exchange.getRequestURI().getRawQuery(), params);
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = inputStream.read(buffer)) != -1; ) {
+                body.write(buffer, 0, read);
+            }
+            parseParams(new String(body.toByteArray(), StandardCharsets.UTF_8), params);
+        }
+        return Collections.unmodifiableMap(params);
+    }
+
+    /**
+     * Parses URL-encoded parameters.
+     *
+     * @param encoded URL-encoded parameters.
+     * @param params  parameters to put parsed values to.
+     */
+    private static void parseParams(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            params.put(
+                    decode(separator < 0 ? pair : pair.substring(0, separator)),
+                    separator < 0 ? "" : decode(pair.substring(separator + 1))
+            );
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sends JSON response.
+     *
+     * @param exchange HTTP exchange.
+     * @param json     response JSON.
+     * @throws IOException if errors occur.
+     */
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static void delay(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
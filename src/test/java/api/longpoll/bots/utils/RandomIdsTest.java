@@ -0,0 +1,47 @@
+package api.longpoll.bots.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RandomIdsTest {
+    @Test
+    void generatesDistinctIdsWithNodePrefixAcrossThreads() throws InterruptedException {
+        RandomIdGenerator generator = RandomIds.counter(5);
+        Set<Integer> randomIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    randomIds.add(generator.nextRandomId());
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(80000, randomIds.size());
+        assertTrue(randomIds.stream().allMatch(randomId -> randomId > 0 && randomId >>> RandomIds.COUNTER_BITS == 5));
+        assertThrows(IllegalArgumentException.class, () -> RandomIds.counter(RandomIds.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void usesConfiguredGenerator() {
+        try {
+            RandomIds.setGenerator(() -> 42);
+            assertEquals(42, RandomIds.next());
+        } finally {
+            RandomIds.setGenerator(RandomIds.counter(0));
+        }
+        assertTrue(RandomIds.next() > 0);
+    }
+}
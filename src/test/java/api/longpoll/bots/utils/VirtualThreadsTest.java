@@ -0,0 +1,30 @@
+package api.longpoll.bots.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsTest {
+    @Test
+    void createsVirtualThreadOrFallsBackToDaemonThread() throws Exception {
+        CompletableFuture<String> threadName = new CompletableFuture<>();
+        Thread thread = VirtualThreads.newThread("poller", () -> threadName.complete(Thread.currentThread().getName()));
+
+        assertTrue(thread.isDaemon());
+        assertEquals(VirtualThreads.isSupported(), isVirtual(thread));
+        thread.start();
+        assertEquals("poller", threadName.get(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package api.longpoll.bots.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VkMethodsTest {
+    @Test
+    void resolvesMethodsAgainstBaseUrl() {
+        assertEquals("https://api.vk.com/method/messages.send", VkMethods.get("messages.send"));
+        assertSame(VkMethods.getUrl("messages.send"), VkMethods.getUrl("messages.send"));
+
+        try {
+            VkMethods.setBaseUrl("http://localhost:8080/vk/method");
+            assertEquals("http://localhost:8080/vk/method/messages.send", VkMethods.get("messages.send"));
+        } finally {
+            VkMethods.setBaseUrl(VkMethods.DEFAULT_BASE_URL);
+        }
+    }
+
+    @Test
+    void rejectsUnknownMethod() {
+        assertThrows(IllegalArgumentException.class, () -> VkMethods.getUrl("messages.unknown"));
+    }
+}